@@ -0,0 +1,40 @@
+package com.groupe.gestion_.de_.notes.Config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.groupe.gestion_.de_.notes.model.Grade;
+
+/**
+ * Grades used to take their ids from an IDENTITY column. The pooled grade_id_seq created for batch
+ * inserts starts at 1, so on an existing database it is moved past the highest id already used
+ * before any grade can be written.
+ */
+@Component
+@Order(0)
+public class GradeSequenceInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(GradeSequenceInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public GradeSequenceInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM grades", Long.class);
+        Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM grade_id_seq", Long.class);
+        // The pooled optimizer hands out the block ending at nextval, so keep a whole block of headroom
+        long target = maxId + Grade.ID_ALLOCATION_SIZE;
+        if (lastValue == null || lastValue < target) {
+            jdbcTemplate.queryForObject("SELECT setval('grade_id_seq', ?)", Long.class, target);
+            logger.info("grade_id_seq moved to {} (max grade id {})", target, maxId);
+        }
+    }
+}
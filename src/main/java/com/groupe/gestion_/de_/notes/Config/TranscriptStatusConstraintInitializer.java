@@ -0,0 +1,36 @@
+package com.groupe.gestion_.de_.notes.Config;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.groupe.gestion_.de_.notes.model.TranscriptStatus;
+
+/**
+ * Hibernate creates a check constraint listing the enum values with the transcripts table, and
+ * ddl-auto=update never changes it afterwards. It is rebuilt from TranscriptStatus at startup so an
+ * existing database accepts the PENDING and PROCESSING job states.
+ */
+@Component
+@Order(0)
+public class TranscriptStatusConstraintInitializer implements CommandLineRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TranscriptStatusConstraintInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        String values = Arrays.stream(TranscriptStatus.values())
+                .map(status -> "'" + status.name() + "'")
+                .collect(Collectors.joining(", "));
+        jdbcTemplate.execute("ALTER TABLE transcripts DROP CONSTRAINT IF EXISTS transcripts_status_check");
+        jdbcTemplate.execute("ALTER TABLE transcripts ADD CONSTRAINT transcripts_status_check CHECK (status IN (" + values + "))");
+    }
+}
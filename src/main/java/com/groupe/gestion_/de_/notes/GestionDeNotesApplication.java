@@ -5,9 +5,11 @@ import io.swagger.v3.oas.annotations.info.Info;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableRetry
+@EnableScheduling
 @OpenAPIDefinition(info = @Info(title = "GradeManagement API", version = "3.0", description = "Documentation GradeManagement API v1.0"))
 public class GestionDeNotesApplication {
 
@@ -14,12 +14,16 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.groupe.gestion_.de_.notes.dto.ClassRequest;
 import com.groupe.gestion_.de_.notes.dto.ClassResponse;
+import com.groupe.gestion_.de_.notes.dto.GradebookResponse;
+import com.groupe.gestion_.de_.notes.dto.StudentRankResponse;
 import com.groupe.gestion_.de_.notes.security.Utils.ObjectLevelSecurity;
 import com.groupe.gestion_.de_.notes.services.ServiceInterface.ClassService;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.RankingService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -36,6 +40,7 @@ import lombok.RequiredArgsConstructor;
 public class ClassController {
 
     private final ClassService classService;
+    private final RankingService rankingService;
     private final ObjectLevelSecurity objectLevelSecurity;
 
     @Operation(summary = "Create a new class", description = "Allows Admins to create a new academic class.")
@@ -131,4 +136,62 @@ public class ClassController {
         classService.deleteClass(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Get the gradebook of a class", description = "Retrieves the students x subjects grid of a class with the grade average and count of every cell, authorized once and loaded in three queries.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Gradebook retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Only Admins or Teachers assigned to the class can view its gradebook"),
+            @ApiResponse(responseCode = "404", description = "Class not found")
+    })
+    @GetMapping("/{id}/gradebook")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('TEACHER') and @objectLevelSecurity.isTeacherAssignedToClass(#id))")
+    public ResponseEntity<GradebookResponse> getGradebook(@PathVariable Long id) {
+        return ResponseEntity.ok(classService.getGradebook(id));
+    }
+
+    // --- Ranking Endpoints ---
+
+    @Operation(summary = "Get a class ranking", description = "Ranks the students of a class on a subject average, or on the overall average weighted by subject coefficients when no subject is given. Use top to keep the N best.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ranking retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Only Admins or Teachers assigned to the class can view rankings"),
+            @ApiResponse(responseCode = "404", description = "Class or subject not found")
+    })
+    @GetMapping("/{id}/rankings")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('TEACHER') and @objectLevelSecurity.isTeacherAssignedToClass(#id))")
+    public ResponseEntity<List<StudentRankResponse>> getClassRanking(@PathVariable Long id,
+                                                                     @RequestParam(required = false) String subjectCode,
+                                                                     @RequestParam(required = false) Integer top) {
+        return ResponseEntity.ok(rankingService.getClassRanking(id, subjectCode, top));
+    }
+
+    @Operation(summary = "Get students below a threshold", description = "Lists the students of a class whose subject or overall average is strictly below the threshold, best first.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Students retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Only Admins or Teachers assigned to the class can view rankings"),
+            @ApiResponse(responseCode = "404", description = "Class or subject not found")
+    })
+    @GetMapping("/{id}/rankings/below")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('TEACHER') and @objectLevelSecurity.isTeacherAssignedToClass(#id))")
+    public ResponseEntity<List<StudentRankResponse>> getStudentsBelowThreshold(@PathVariable Long id,
+                                                                               @RequestParam double threshold,
+                                                                               @RequestParam(required = false) String subjectCode) {
+        return ResponseEntity.ok(rankingService.getStudentsBelow(id, threshold, subjectCode));
+    }
+
+    @Operation(summary = "Get a student's rank in a class", description = "Retrieves the rank and percentile of a student within a class, on a subject or overall.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rank retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: User does not have privileges to view this rank"),
+            @ApiResponse(responseCode = "404", description = "Class or subject not found, or student not enrolled in the class")
+    })
+    @GetMapping("/{id}/rankings/student/{studentIdNum}")
+    @PreAuthorize("hasRole('ADMIN') or " +
+            "(hasRole('TEACHER') and @objectLevelSecurity.isTeacherAssignedToClass(#id)) or " +
+            "(hasRole('STUDENT') and @objectLevelSecurity.isStudentOwner(#studentIdNum) and @objectLevelSecurity.isStudentEnrolledInClass(#id))")
+    public ResponseEntity<StudentRankResponse> getStudentRank(@PathVariable Long id,
+                                                              @PathVariable String studentIdNum,
+                                                              @RequestParam(required = false) String subjectCode) {
+        return ResponseEntity.ok(rankingService.getStudentRank(id, studentIdNum, subjectCode));
+    }
+}
@@ -1,9 +1,15 @@
 package com.groupe.gestion_.de_.notes.controllers;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.NoSuchElementException;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -14,17 +20,37 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import com.groupe.gestion_.de_.notes.dto.GradeBatchRequest;
+import com.groupe.gestion_.de_.notes.dto.GradeBatchResponse;
+import com.groupe.gestion_.de_.notes.dto.GradeChangesResponse;
+import com.groupe.gestion_.de_.notes.dto.GradeDistributionResponse;
+import com.groupe.gestion_.de_.notes.dto.GradeEventPageResponse;
+import com.groupe.gestion_.de_.notes.dto.GradeFilter;
+import com.groupe.gestion_.de_.notes.dto.GradeImportResponse;
+import com.groupe.gestion_.de_.notes.dto.GradePageResponse;
 import com.groupe.gestion_.de_.notes.dto.GradeRequest;
 import com.groupe.gestion_.de_.notes.dto.GradeResponse;
+import com.groupe.gestion_.de_.notes.dto.GradeStatsReport;
+import com.groupe.gestion_.de_.notes.dto.StudentAverageResponse;
+import com.groupe.gestion_.de_.notes.exceptions.ResourceNotFoundException;
 import com.groupe.gestion_.de_.notes.security.Utils.ObjectLevelSecurity;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.GradeDistributionService;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.GradeImportService;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.GradeOutboxService;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.GradeStatsService;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.GradeSyncService;
 import com.groupe.gestion_.de_.notes.services.ServiceInterface.GradesService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -36,8 +62,16 @@ import lombok.RequiredArgsConstructor;
 public class GradeController {
 
     private final GradesService gradeService;
+    private final GradeStatsService gradeStatsService;
+    private final GradeImportService gradeImportService;
+    private final GradeDistributionService gradeDistributionService;
+    private final GradeOutboxService gradeOutboxService;
+    private final GradeSyncService gradeSyncService;
     private final ObjectLevelSecurity objectLevelSecurity; // Used for object-level security checks
 
+    @Value("${app.grades.stream.timeout-ms:1800000}")
+    private long streamTimeoutMs; // the stream may legitimately run for minutes, other async requests keep the default
+
     /**
      * Creates a new grade record.
      * Accessible by TEACHERs and ADMINs.
@@ -58,6 +92,60 @@ public class GradeController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    /**
+     * Creates many grade records in one call (e.g. a whole class's exam results).
+     * Accessible by TEACHERs and ADMINs.
+     * TEACHERs' rows are rejected individually for subjects they are not assigned to.
+     */
+    @Operation(summary = "Create grades in bulk", description = "Records a batch of grades in one request. Each row is validated on its own and the response reports, per row, the created grade or the rejection reason.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed; see the per-row results"),
+            @ApiResponse(responseCode = "400", description = "Empty batch or batch larger than the allowed maximum"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Only Teachers or Admins can create grades")
+    })
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<GradeBatchResponse> addGrades(@Valid @RequestBody GradeBatchRequest request) {
+        return ResponseEntity.ok(gradeService.addGrades(request.getGrades()));
+    }
+
+    /**
+     * Imports grades from an Excel (.xlsx) or CSV file.
+     * Accessible by TEACHERs (for the subjects they are assigned to) and ADMINs.
+     */
+    @Operation(summary = "Import grades from a spreadsheet", description = "Imports grades from an .xlsx or .csv file whose header contains studentIdNum, subjectCode, value, date and optionally comment and recordedBy. Valid rows are saved; rejected rows are listed in a downloadable error report.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "File processed; see the counts and the error report id"),
+            @ApiResponse(responseCode = "400", description = "Empty, unreadable or unsupported file, or missing header columns"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Only Teachers or Admins can import grades")
+    })
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<GradeImportResponse> importGrades(@RequestParam("file") MultipartFile file) throws IOException {
+        return ResponseEntity.ok(gradeImportService.importGrades(file));
+    }
+
+    /**
+     * Downloads the CSV report of the rows rejected by an import.
+     * Only the user who ran the import (or an ADMIN) can download it.
+     */
+    @Operation(summary = "Download an import error report", description = "Returns the CSV list of rejected rows, with the reason for each, of a previous import.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Error report downloaded"),
+            @ApiResponse(responseCode = "404", description = "Report not found or expired")
+    })
+    @GetMapping("/import/reports/{reportId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<byte[]> getImportErrorReport(@PathVariable String reportId) {
+        byte[] report = gradeImportService.getErrorReport(reportId)
+                .orElseThrow(() -> new ResourceNotFoundException("Import report not found with ID: " + reportId));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv; charset=UTF-8"));
+        headers.setContentDispositionFormData("attachment", "grade_import_errors_" + reportId + ".csv");
+        return ResponseEntity.ok().headers(headers).body(report);
+    }
+
     /**
      * Retrieves a grade by its ID.
      * ADMINs can view any grade.
@@ -96,6 +184,26 @@ public class GradeController {
         return ResponseEntity.ok(grades);
     }
 
+    /**
+     * Streams all grade records as newline-delimited JSON.
+     * Accessible only by ADMINs. Meant for reporting jobs pulling the whole table.
+     * Written from an async task with its own timeout (app.grades.stream.timeout-ms).
+     */
+    @Operation(summary = "Stream all grades", description = "Streams every grade as newline-delimited JSON (application/x-ndjson), one grade per line, without loading the whole table in memory.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Grades streamed successfully"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Only Admins can view all grades")
+    })
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public WebAsyncTask<Void> streamAllGrades(HttpServletResponse response) {
+        response.setContentType("application/x-ndjson");
+        return new WebAsyncTask<>(streamTimeoutMs, () -> {
+            gradeService.streamAllGrades(response.getOutputStream());
+            return null;
+        });
+    }
+
         /**
          * Retrieves all grades recorded by a specific teacher.
          * TEACHERs can only view grades they recorded themselves.
@@ -152,6 +260,116 @@ public class GradeController {
         return ResponseEntity.ok(grades);
     }
 
+    // --- Paginated Listing Endpoints ---
+
+    /**
+     * Retrieves one page of all grade records, newest first.
+     * Accessible only by ADMINs.
+     */
+    @Operation(summary = "Get a page of all grades", description = "Cursor-paginated list of all grades, newest first, with optional date and value range filters.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of grades retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, page size or range"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Only Admins can view all grades")
+    })
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<GradePageResponse> getGradesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Double minValue,
+            @RequestParam(required = false) Double maxValue) {
+        GradeFilter filter = GradeFilter.builder()
+                .fromDate(from).toDate(to).minValue(minValue).maxValue(maxValue)
+                .build();
+        return ResponseEntity.ok(gradeService.findGradesPage(filter, cursor, size));
+    }
+
+    /**
+     * Retrieves one page of the grades recorded by a specific teacher, newest first.
+     * Same access rules as `getGradesByTeacher`.
+     */
+    @Operation(summary = "Get a page of grades by teacher", description = "Cursor-paginated list of the grades recorded by a teacher, with optional date and value range filters.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of grades retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, page size or range"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Teachers can only view their own grades")
+    })
+    @GetMapping("/teacher/{teacherIdNum}/page")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('TEACHER') and @objectLevelSecurity.isTeacherOwner(#teacherIdNum))")
+    public ResponseEntity<GradePageResponse> getGradesPageByTeacher(
+            @PathVariable String teacherIdNum,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Double minValue,
+            @RequestParam(required = false) Double maxValue) {
+        GradeFilter filter = GradeFilter.builder()
+                .teacherIdNum(teacherIdNum)
+                .fromDate(from).toDate(to).minValue(minValue).maxValue(maxValue)
+                .build();
+        return ResponseEntity.ok(gradeService.findGradesPage(filter, cursor, size));
+    }
+
+    /**
+     * Retrieves one page of a student's grades, newest first.
+     * Same access rules as `findGradesByStudentIdNum`.
+     */
+    @Operation(summary = "Get a page of grades by student IdNum", description = "Cursor-paginated list of a student's grades, with optional date and value range filters.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of grades retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, page size or range"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Insufficient privileges to view these grades")
+    })
+    @GetMapping("/student/{studentIdNum}/page")
+    @PreAuthorize("hasRole('ADMIN') or " +
+            "(hasRole('TEACHER') and @objectLevelSecurity.isTeacherAssignedToStudent(#studentIdNum)) or " +
+            "(hasRole('STUDENT') and @objectLevelSecurity.isStudentOwner(#studentIdNum))")
+    public ResponseEntity<GradePageResponse> getGradesPageByStudentIdNum(
+            @PathVariable String studentIdNum,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Double minValue,
+            @RequestParam(required = false) Double maxValue) {
+        GradeFilter filter = GradeFilter.builder()
+                .studentIdNum(studentIdNum)
+                .fromDate(from).toDate(to).minValue(minValue).maxValue(maxValue)
+                .build();
+        return ResponseEntity.ok(gradeService.findGradesPage(filter, cursor, size));
+    }
+
+    /**
+     * Retrieves one page of the grades of a subject, newest first.
+     * Same access rules as `findGradesBySubjectCode`.
+     */
+    @Operation(summary = "Get a page of grades by subject Code", description = "Cursor-paginated list of a subject's grades, with optional date and value range filters.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of grades retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, page size or range"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Only Admins or Teachers assigned to the subject can view these grades")
+    })
+    @GetMapping("/subject/{subjectCode}/page")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('TEACHER') and @objectLevelSecurity.isTeacherAssignedToSubject(#subjectCode))")
+    public ResponseEntity<GradePageResponse> getGradesPageBySubjectCode(
+            @PathVariable String subjectCode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Double minValue,
+            @RequestParam(required = false) Double maxValue) {
+        GradeFilter filter = GradeFilter.builder()
+                .subjectCode(subjectCode)
+                .fromDate(from).toDate(to).minValue(minValue).maxValue(maxValue)
+                .build();
+        return ResponseEntity.ok(gradeService.findGradesPage(filter, cursor, size));
+    }
+
     /**
      * Retrieves grades for a specific student in a specific subject.
      * Access similar to `getGradesByStudentId`.
@@ -257,9 +475,169 @@ public class GradeController {
             @ApiResponse(responseCode = "404", description = "Subject not found")
     })
     @GetMapping("/averages/subject/{subjectCode}")
-    @PreAuthorize("hasRole('ADMIN') or (hasRole('TEACHER') and @objectLevelSecurity.isTeacherAssignedToSubject(#subjectIdNum))")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('TEACHER') and @objectLevelSecurity.isTeacherAssignedToSubject(#subjectCode))")
     public ResponseEntity<Double> calculateSubjectAverageGrade(@PathVariable String subjectCode) {
         Double average = gradeService.calculateSubjectAverageGrade(subjectCode);
         return ResponseEntity.ok(average);
     }
+
+    /**
+     * Calculates the overall weighted average of every student enrolled in a class.
+     * Accessible by ADMINs and TEACHERs assigned to that class.
+     */
+    @Operation(summary = "Calculate overall averages for a class", description = "Retrieves the overall weighted average of every student enrolled in a class, computed in a single query.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Class averages calculated successfully"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Only Admins or Teachers assigned to the class can view this"),
+            @ApiResponse(responseCode = "404", description = "Class not found")
+    })
+    @GetMapping("/averages/class/{classId}")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('TEACHER') and @objectLevelSecurity.isTeacherAssignedToClass(#classId))")
+    public ResponseEntity<List<StudentAverageResponse>> calculateClassOverallAverageGrades(@PathVariable Long classId) {
+        return ResponseEntity.ok(gradeService.calculateClassOverallAverageGrades(classId));
+    }
+
+    // --- Distribution Statistics Endpoints ---
+
+    /**
+     * Descriptive statistics of the grades recorded in a subject.
+     * Accessible by ADMINs and TEACHERs (if assigned to that subject).
+     */
+    @Operation(summary = "Get subject grade statistics", description = "Retrieves count, mean, standard deviation, min/max, quartiles and a 0-20 histogram of the grades of a subject.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Subject statistics calculated successfully"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Only Admins or Teachers assigned to the subject can view this"),
+            @ApiResponse(responseCode = "404", description = "Subject not found")
+    })
+    @GetMapping("/stats/subject/{subjectCode}")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('TEACHER') and @objectLevelSecurity.isTeacherAssignedToSubject(#subjectCode))")
+    public ResponseEntity<GradeDistributionResponse> getSubjectGradeStatistics(@PathVariable String subjectCode) {
+        return ResponseEntity.ok(gradeDistributionService.getSubjectDistribution(subjectCode));
+    }
+
+    /**
+     * Descriptive statistics of the grades of the students enrolled in a class.
+     * Accessible by ADMINs and TEACHERs assigned to that class.
+     */
+    @Operation(summary = "Get class grade statistics", description = "Retrieves count, mean, standard deviation, min/max, quartiles and a 0-20 histogram of the grades of the students enrolled in a class.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Class statistics calculated successfully"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Only Admins or Teachers assigned to the class can view this"),
+            @ApiResponse(responseCode = "404", description = "Class not found")
+    })
+    @GetMapping("/stats/class/{classId}")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('TEACHER') and @objectLevelSecurity.isTeacherAssignedToClass(#classId))")
+    public ResponseEntity<GradeDistributionResponse> getClassGradeStatistics(@PathVariable Long classId) {
+        return ResponseEntity.ok(gradeDistributionService.getClassDistribution(classId));
+    }
+
+    // --- Change Feed Endpoints ---
+
+    /**
+     * Grade changes recorded in the outbox after a given event id, for consumers maintaining derived data.
+     * Accessible by ADMINs only.
+     */
+    @Operation(summary = "Get grade change events", description = "Returns the grade creations, updates and deletions recorded after the given event id, oldest first. Resume with since=nextSince; events still being committed are never skipped.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Events retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid since value"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Only Admins can read the change feed")
+    })
+    @GetMapping("/events")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<GradeEventPageResponse> getGradeEvents(@RequestParam(defaultValue = "0") long since,
+                                                                 @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(gradeOutboxService.getEventsSince(since, limit));
+    }
+
+    // --- Delta Sync Endpoints ---
+
+    /**
+     * Grades created, updated or deleted since a sync token.
+     * Accessible by ADMINs only.
+     */
+    @Operation(summary = "Sync all grades", description = "Returns the current state of the grades created or updated since the token and tombstones for the deleted ones. Without a token (or with an expired one) resetRequired is set: reload the full list, then sync from nextToken.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid sync token"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Only Admins can sync every grade")
+    })
+    @GetMapping("/changes")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<GradeChangesResponse> getGradeChanges(@RequestParam(required = false) String since,
+                                                                @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(gradeSyncService.getChanges(since, limit));
+    }
+
+    /**
+     * Grades of a student created, updated or deleted since a sync token.
+     * Accessible by ADMINs, the student themselves, and TEACHERs assigned to the student.
+     */
+    @Operation(summary = "Sync a student's grades", description = "Incremental version of the student grade list: upserts and tombstones since the token.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid sync token"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: User does not have privileges to view these grades"),
+            @ApiResponse(responseCode = "404", description = "Student not found")
+    })
+    @GetMapping("/student/{studentIdNum}/changes")
+    @PreAuthorize("hasRole('ADMIN') or " +
+            "(hasRole('TEACHER') and @objectLevelSecurity.isTeacherAssignedToStudent(#studentIdNum)) or " +
+            "(hasRole('STUDENT') and @objectLevelSecurity.isStudentOwner(#studentIdNum))")
+    public ResponseEntity<GradeChangesResponse> getGradeChangesByStudentIdNum(@PathVariable String studentIdNum,
+                                                                              @RequestParam(required = false) String since,
+                                                                              @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(gradeSyncService.getChangesByStudentIdNum(studentIdNum, since, limit));
+    }
+
+    /**
+     * Grades of a subject created, updated or deleted since a sync token.
+     * Accessible by ADMINs and TEACHERs assigned to that subject.
+     */
+    @Operation(summary = "Sync a subject's grades", description = "Incremental version of the subject grade list: upserts and tombstones since the token.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid sync token"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Only Admins or Teachers assigned to the subject can view these grades"),
+            @ApiResponse(responseCode = "404", description = "Subject not found")
+    })
+    @GetMapping("/subject/{subjectCode}/changes")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('TEACHER') and @objectLevelSecurity.isTeacherAssignedToSubject(#subjectCode))")
+    public ResponseEntity<GradeChangesResponse> getGradeChangesBySubjectCode(@PathVariable String subjectCode,
+                                                                             @RequestParam(required = false) String since,
+                                                                             @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(gradeSyncService.getChangesBySubjectCode(subjectCode, since, limit));
+    }
+
+    // --- Aggregate Maintenance Endpoints ---
+
+    /**
+     * Rebuilds the per student/subject grade aggregates from the grades table.
+     * Accessible by ADMINs only.
+     */
+    @Operation(summary = "Rebuild grade aggregates", description = "Recomputes every student/subject aggregate row from the grades table (backfill or repair).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Aggregates rebuilt successfully"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Only Admins can rebuild aggregates")
+    })
+    @PostMapping("/aggregates/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<GradeStatsReport> rebuildGradeAggregates() {
+        return ResponseEntity.ok(gradeStatsService.rebuild());
+    }
+
+    /**
+     * Checks that the per student/subject grade aggregates match the grades table, optionally repairing them.
+     * Accessible by ADMINs only.
+     */
+    @Operation(summary = "Check grade aggregates consistency", description = "Counts the student/subject aggregate rows that do not match the grades table and rebuilds them when repair=true.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Consistency check completed"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Only Admins can check aggregates")
+    })
+    @PostMapping("/aggregates/consistency-check")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<GradeStatsReport> checkGradeAggregates(@RequestParam(defaultValue = "false") boolean repair) {
+        return ResponseEntity.ok(gradeStatsService.checkConsistency(repair));
+    }
 }
@@ -0,0 +1,62 @@
+package com.groupe.gestion_.de_.notes.controllers;
+
+import java.io.IOException;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groupe.gestion_.de_.notes.dto.StudentDashboardResponse;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.StudentDashboardService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/student")
+@RequiredArgsConstructor
+@Tag(name = "Student Dashboard", description = "API for the student home page")
+@CrossOrigin(origins = "http://localhost:4200")
+public class StudentDashboardController {
+
+    private final StudentDashboardService studentDashboardService;
+    private final ObjectMapper objectMapper; // Spring's mapper, so the ETag hashes exactly what is sent
+
+    /**
+     * Enrollments, grades by subject, subject averages and overall average in one call.
+     * The ETag is a hash of the payload: a client sending it back in If-None-Match gets a 304 when nothing changed.
+     */
+    @Operation(summary = "Get a student's dashboard", description = "Retrieves the enrollments, grades grouped by subject, subject averages and weighted overall average of a student in a single call. Supports If-None-Match.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Dashboard retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Dashboard unchanged since the ETag sent in If-None-Match"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: User does not have privileges to view this dashboard"),
+            @ApiResponse(responseCode = "404", description = "Student not found")
+    })
+    @GetMapping("/{studentIdNum}/dashboard")
+    @PreAuthorize("hasRole('ADMIN') or " +
+            "(hasRole('TEACHER') and @objectLevelSecurity.isTeacherAssignedToStudent(#studentIdNum)) or " +
+            "(hasRole('STUDENT') and @objectLevelSecurity.isStudentOwner(#studentIdNum))")
+    public ResponseEntity<StudentDashboardResponse> getDashboard(@PathVariable String studentIdNum, WebRequest request) throws IOException {
+        StudentDashboardResponse dashboard = studentDashboardService.getDashboard(studentIdNum);
+        String etag = "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(dashboard)) + "\"";
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate(); // always revalidate, never in shared caches
+
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(dashboard);
+    }
+}
@@ -1,10 +1,37 @@
 package com.groupe.gestion_.de_.notes.controllers;
 
+import java.net.URI;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import com.groupe.gestion_.de_.notes.dto.TranscriptData;
+import com.groupe.gestion_.de_.notes.dto.TranscriptResponse;
+import com.groupe.gestion_.de_.notes.model.TranscriptStatus;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.TranscriptService;
 
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -14,27 +41,111 @@ import lombok.RequiredArgsConstructor;
 @CrossOrigin(origins = "http://localhost:4200")
 public class TranscriptController {
 
- /*   private final TranscriptService transcriptService;
-    private final ObjectLevelSecurity objectLevelSecurity;
+    private final TranscriptService transcriptService;
+
+    @Value("${app.transcripts.zip-timeout-ms:1800000}")
+    private long zipTimeoutMs; // a whole class takes longer than the default async timeout to render
 
-    @Operation(summary = "Generate a PDF transcript for a student", description = "Generates and downloads an academic transcript in PDF format for the specified student.")
+    /**
+     * Transcripts are rendered in the background: this only queues the job, the client polls its
+     * status and downloads the PDF once it is GENERATED. A record unchanged since its last transcript
+     * gets that PDF back at once, with a 200.
+     */
+    @Operation(summary = "Request a PDF transcript for a student", description = "Queues the generation of an academic transcript and returns the job. Poll the Location URL until the status is GENERATED, then download the PDF.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Transcript generated and downloaded successfully"),
-            @ApiResponse(responseCode = "403", description = "Forbidden: Insufficient privileges to view this transcript"),
+            @ApiResponse(responseCode = "200", description = "Transcript already generated for the student's current grades"),
+            @ApiResponse(responseCode = "202", description = "Transcript generation queued"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Insufficient privileges to request this transcript"),
+            @ApiResponse(responseCode = "404", description = "Student not found")
+    })
+    @PostMapping("/student/{studentIdNum}")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('STUDENT') and @objectLevelSecurity.isStudentOwner(#studentIdNum))")
+    public ResponseEntity<TranscriptResponse> requestStudentTranscript(@PathVariable String studentIdNum) {
+        TranscriptResponse transcript = transcriptService.requestTranscript(studentIdNum);
+        return ResponseEntity.status(transcript.getStatus() == TranscriptStatus.GENERATED ? HttpStatus.OK : HttpStatus.ACCEPTED)
+                .location(URI.create("/api/transcripts/student/" + studentIdNum + "/" + transcript.getId()))
+                .body(transcript);
+    }
+
+    @Operation(summary = "List a student's transcripts", description = "Retrieves the transcript jobs of a student, most recent first.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transcripts retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Insufficient privileges to view these transcripts"),
             @ApiResponse(responseCode = "404", description = "Student not found")
     })
     @GetMapping("/student/{studentIdNum}")
     @PreAuthorize("hasRole('ADMIN') or (hasRole('STUDENT') and @objectLevelSecurity.isStudentOwner(#studentIdNum))")
-    public ResponseEntity<byte[]> getStudentTranscript(@PathVariable String studentIdNum) throws IOException {
-        byte[] pdfBytes = transcriptService.generateTranscriptForStudent(studentIdNum);
+    public ResponseEntity<List<TranscriptResponse>> getStudentTranscripts(@PathVariable String studentIdNum) {
+        return ResponseEntity.ok(transcriptService.getTranscriptsByStudentIdNum(studentIdNum));
+    }
+
+    @Operation(summary = "Get the status of a transcript", description = "Retrieves a transcript job: PENDING, PROCESSING, GENERATED, ARCHIVED or ERROR.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transcript retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Insufficient privileges to view this transcript"),
+            @ApiResponse(responseCode = "404", description = "Student or transcript not found")
+    })
+    @GetMapping("/student/{studentIdNum}/{transcriptId}")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('STUDENT') and @objectLevelSecurity.isStudentOwner(#studentIdNum))")
+    public ResponseEntity<TranscriptResponse> getStudentTranscript(@PathVariable String studentIdNum, @PathVariable Long transcriptId) {
+        return ResponseEntity.ok(transcriptService.getTranscript(studentIdNum, transcriptId));
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF);
+    /**
+     * Transcript files are content-addressed and never rewritten, so their name is a strong ETag: a re-download
+     * with If-None-Match costs a 304. Range requests are answered with 206 by the resource converters.
+     */
+    @Operation(summary = "Download a generated PDF transcript", description = "Downloads the PDF of a transcript whose status is GENERATED or ARCHIVED. Supports If-None-Match and Range requests.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transcript downloaded successfully"),
+            @ApiResponse(responseCode = "206", description = "Requested byte range of the transcript"),
+            @ApiResponse(responseCode = "304", description = "Transcript unchanged since the ETag sent in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Transcript not generated yet or failed"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Insufficient privileges to view this transcript"),
+            @ApiResponse(responseCode = "404", description = "Student, transcript or file not found")
+    })
+    @GetMapping("/student/{studentIdNum}/{transcriptId}/pdf")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('STUDENT') and @objectLevelSecurity.isStudentOwner(#studentIdNum))")
+    public ResponseEntity<Resource> downloadStudentTranscript(@PathVariable String studentIdNum, @PathVariable Long transcriptId,
+                                                              WebRequest request) {
+        Resource pdf = transcriptService.getTranscriptPdf(studentIdNum, transcriptId);
+        String etag = "\"" + StringUtils.stripFilenameExtension(pdf.getFilename()) + "\"";
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
         String filename = "transcript_student_" + studentIdNum + ".pdf";
-        headers.setContentDispositionFormData("attachment", filename);
 
         return ResponseEntity.ok()
-                .headers(headers)
-                .body(pdfBytes);
-    }*/
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(pdf);
+    }
+
+    /**
+     * The class records are loaded before the response starts, so an unknown class still answers 404;
+     * the PDFs are then rendered in parallel and written to the ZIP as they come, from an async task with
+     * its own timeout (app.transcripts.zip-timeout-ms).
+     */
+    @Operation(summary = "Generate the transcripts of a whole class", description = "Renders the PDF transcript of every student enrolled in the class and streams them as a ZIP archive (application/zip), one transcript_{studentIdNum}.pdf entry per student.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transcripts streamed successfully"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Only Admins can generate class transcripts"),
+            @ApiResponse(responseCode = "404", description = "Class not found")
+    })
+    @PostMapping(value = "/class/{classId}", produces = "application/zip")
+    @PreAuthorize("hasRole('ADMIN')")
+    public WebAsyncTask<Void> generateClassTranscripts(@PathVariable Long classId, HttpServletResponse response) {
+        List<TranscriptData> transcripts = transcriptService.getClassTranscriptData(classId);
+        String filename = "transcripts_class_" + classId + ".zip";
+
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString());
+        return new WebAsyncTask<>(zipTimeoutMs, () -> {
+            transcriptService.writeTranscriptsZip(transcripts, response.getOutputStream());
+            return null;
+        });
+    }
 }
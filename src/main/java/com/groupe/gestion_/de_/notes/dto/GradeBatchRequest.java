@@ -0,0 +1,20 @@
+package com.groupe.gestion_.de_.notes.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradeBatchRequest {
+
+    // Rows are validated one by one by the service so a bad row is reported instead of failing the batch
+    @NotEmpty(message = "A batch must contain at least one grade")
+    private List<GradeRequest> grades;
+}
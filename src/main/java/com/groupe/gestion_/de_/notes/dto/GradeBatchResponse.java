@@ -0,0 +1,20 @@
+package com.groupe.gestion_.de_.notes.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradeBatchResponse {
+    private int createdCount;
+    private int rejectedCount;
+    private List<GradeBatchRowResult> results; // one per request row, in request order
+}
@@ -0,0 +1,19 @@
+package com.groupe.gestion_.de_.notes.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradeBatchRowResult {
+    private int index; // position of the row in the request
+    private boolean created;
+    private GradeResponse grade; // set when created
+    private String error; // set when rejected
+}
@@ -0,0 +1,26 @@
+package com.groupe.gestion_.de_.notes.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradeChangeEventResponse {
+    private Long eventId;
+    private String type; // CREATED, UPDATED or DELETED
+    private Long gradeId;
+    private Long studentId;
+    private Long subjectId;
+    private Long previousStudentId; // Only when an update moved the grade
+    private Long previousSubjectId;
+    private Double value; // null for deletions
+    private LocalDateTime occurredAt;
+}
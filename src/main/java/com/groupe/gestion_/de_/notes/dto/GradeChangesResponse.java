@@ -0,0 +1,22 @@
+package com.groupe.gestion_.de_.notes.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradeChangesResponse {
+    private List<GradeResponse> upserts; // Current state of the grades created or updated since the token
+    private List<GradeTombstone> deleted; // Grades to drop from the client's copy
+    private String nextToken; // Pass back as since= on the next sync
+    private boolean hasMore; // Call again right away with nextToken
+    private boolean resetRequired; // No token, or too old: reload the full list, then sync from nextToken
+}
@@ -0,0 +1,42 @@
+package com.groupe.gestion_.de_.notes.dto;
+
+import com.groupe.gestion_.de_.notes.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Position of the last grade of a page in the (date desc, id desc) order.
+ * Encoded as an opaque, URL-safe token: base64url("v1:" + epochDay + ":" + id).
+ * The version prefix lets the format change without breaking cursors already handed out.
+ */
+public record GradeCursor(LocalDate date, Long id) {
+
+    private static final String VERSION = "v1";
+
+    public String encode() {
+        String raw = VERSION + ":" + date.toEpochDay() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded cursor, or null for a missing/blank token (first page).
+     * @throws BadRequestException if the token was not produced by {@link #encode()}.
+     */
+    public static GradeCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new BadRequestException("Invalid page cursor: " + token);
+            }
+            return new GradeCursor(LocalDate.ofEpochDay(Long.parseLong(parts[1])), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | java.time.DateTimeException e) {
+            throw new BadRequestException("Invalid page cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.groupe.gestion_.de_.notes.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradeDistributionResponse {
+    private String scope; // SUBJECT or CLASS
+    private String scopeKey; // Subject code or class id
+    private long count;
+    private Double mean; // null when there are no grades
+    private Double stddev; // Population standard deviation
+    private Double min;
+    private Double max;
+    private Double q1;
+    private Double median;
+    private Double q3;
+    private long[] histogram; // histogram[i] counts grades in [i, i+1), histogram[20] counts the 20s
+}
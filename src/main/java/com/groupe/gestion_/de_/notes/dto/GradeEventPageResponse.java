@@ -0,0 +1,20 @@
+package com.groupe.gestion_.de_.notes.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradeEventPageResponse {
+    private List<GradeChangeEventResponse> events;
+    private long nextSince; // Pass back as since= to continue; never skips an event still being committed
+    private boolean hasMore;
+}
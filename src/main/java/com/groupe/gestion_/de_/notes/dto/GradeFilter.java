@@ -0,0 +1,26 @@
+package com.groupe.gestion_.de_.notes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Optional criteria of a paginated grade listing; null fields are not filtered on.
+ * Date and value bounds are inclusive.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradeFilter {
+    private String studentIdNum;
+    private String subjectCode;
+    private String teacherIdNum; // teacher who recorded the grade
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private Double minValue;
+    private Double maxValue;
+}
@@ -0,0 +1,19 @@
+package com.groupe.gestion_.de_.notes.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradeImportResponse {
+    private int totalRows; // data rows read, header excluded
+    private int importedCount;
+    private int rejectedCount;
+    private String errorReportId; // download with GET /api/grades/import/reports/{id}, null when nothing was rejected
+}
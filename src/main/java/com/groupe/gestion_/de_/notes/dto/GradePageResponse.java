@@ -0,0 +1,20 @@
+package com.groupe.gestion_.de_.notes.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradePageResponse {
+    private List<GradeResponse> items; // newest first (date, then id, descending)
+    private String nextCursor; // pass back as ?cursor= to get the next page, null on the last page
+    private int size;
+}
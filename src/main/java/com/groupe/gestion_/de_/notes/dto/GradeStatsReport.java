@@ -0,0 +1,17 @@
+package com.groupe.gestion_.de_.notes.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradeStatsReport {
+    private long inconsistentPairs; // (student, subject) pairs that did not match the grades table
+    private long rebuiltPairs; // rows written by the rebuild, 0 if no rebuild ran
+}
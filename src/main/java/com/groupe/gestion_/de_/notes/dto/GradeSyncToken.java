@@ -0,0 +1,44 @@
+package com.groupe.gestion_.de_.notes.dto;
+
+import com.groupe.gestion_.de_.notes.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of a client in the grade change feed: the id of the last grade_outbox event it has seen.
+ * Encoded as an opaque, URL-safe token: base64url("v1:" + eventId), like GradeCursor.
+ */
+public record GradeSyncToken(long eventId) {
+
+    private static final String VERSION = "v1";
+
+    public String encode() {
+        String raw = VERSION + ":" + eventId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded token, or null for a missing/blank token (first sync).
+     * @throws BadRequestException if the token was not produced by {@link #encode()}.
+     */
+    public static GradeSyncToken decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 2 || !VERSION.equals(parts[0])) {
+                throw new BadRequestException("Invalid sync token: " + token);
+            }
+            long eventId = Long.parseLong(parts[1]);
+            if (eventId < 0) {
+                throw new BadRequestException("Invalid sync token: " + token);
+            }
+            return new GradeSyncToken(eventId);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid sync token: " + token);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.groupe.gestion_.de_.notes.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * Students x subjects grid of a class. Row i of the matrices is students[i], column j is subjects[j];
+ * a cell with no grade has a null average and a count of 0.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradebookResponse {
+    private Long classId;
+    private List<Student> students;
+    private List<Subject> subjects;
+    private Double[][] averages;
+    private long[][] counts;
+    private Double[] studentAverages; // Per row, weighted by subject coefficient
+    private Double[] subjectAverages; // Per column, over all the grades of the column
+
+    @Getter
+    @AllArgsConstructor
+    public static class Student {
+        private String studentIdNum;
+        private String firstname;
+        private String lastname;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Subject {
+        private String subjectCode;
+        private String name;
+        private Double coefficient;
+    }
+}
@@ -20,6 +20,7 @@ public class LoginRecordResponse {
     private LocalDateTime logOut;
     private UserResponse user; // Nested UserResponse DTO for user details
     private String ipAddress;
+    private LocalDateTime lastActivity;
 
 
     public LoginRecordResponse(Long id, UserResponse user, LocalDateTime logIn, LocalDateTime logOut, String ipAddress) {
@@ -0,0 +1,19 @@
+package com.groupe.gestion_.de_.notes.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StudentAverageResponse {
+    private String studentIdNum;
+    private String firstname;
+    private String lastname;
+    private Double average; // Weighted by subject coefficient, 0.0 if the student has no grades yet
+}
@@ -0,0 +1,60 @@
+package com.groupe.gestion_.de_.notes.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Everything the student home page shows: enrollments, grades grouped by subject,
+ * subject averages and the overall average weighted by subject coefficient.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StudentDashboardResponse {
+    private String studentIdNum;
+    private String firstname;
+    private String lastname;
+    private List<Enrollment> enrollments;
+    private List<SubjectGrades> subjects; // Enrolled or graded subjects, by subject code
+    private Double overallAverage; // null if the student has no grades yet
+
+    @Getter
+    @AllArgsConstructor
+    public static class Enrollment {
+        private Long id;
+        private Long classId;
+        private String className;
+        private String subjectCode;
+        private String semester;
+        private String academicYear;
+        private LocalDate enrollmentDate;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SubjectGrades {
+        private String subjectCode;
+        private String subjectName;
+        private Double coefficient;
+        private Double average; // null if the subject has no grades yet
+        private List<Grade> grades; // by date
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Grade {
+        private Long id;
+        private Double value;
+        private LocalDate date;
+        private String comment;
+        private String recordedBy;
+    }
+}
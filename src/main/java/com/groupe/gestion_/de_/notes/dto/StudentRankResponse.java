@@ -0,0 +1,22 @@
+package com.groupe.gestion_.de_.notes.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StudentRankResponse {
+    private String studentIdNum;
+    private String firstname;
+    private String lastname;
+    private Double average; // Subject average, or overall average weighted by subject coefficient
+    private Integer rank; // 1 = best, ties share a rank; null if the student has no grades in scope
+    private Double percentile; // Share of ranked students below, counting ties as half, in %
+    private int rankedCount; // Number of students with an average in scope
+}
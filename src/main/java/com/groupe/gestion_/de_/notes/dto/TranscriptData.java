@@ -0,0 +1,15 @@
+package com.groupe.gestion_.de_.notes.dto;
+
+import java.util.List;
+
+/**
+ * Everything printed on a transcript, gathered before rendering so the PDF is built without touching the database.
+ * Averages are 0.0 when there is no grade, like the average endpoints.
+ */
+public record TranscriptData(String studentIdNum, String firstname, String lastname,
+                             List<SubjectLine> subjects, double overallAverage) {
+
+    // One line per enrollment
+    public record SubjectLine(String subjectCode, String subjectName, List<Double> grades, double average) {
+    }
+}
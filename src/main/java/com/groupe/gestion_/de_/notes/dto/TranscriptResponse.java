@@ -21,5 +21,7 @@ public class TranscriptResponse {
     private LocalDateTime generationDate;
     private TranscriptStatus status;
     private String filepath;
+    private Integer attempts;
+    private String errorMessage;
     private StudentResponse student; // Nested StudentResponse DTO
 }
@@ -0,0 +1,8 @@
+package com.groupe.gestion_.de_.notes.events;
+
+/**
+ * Published after rare administrative changes (subject code update, class/subject/user deletion)
+ * that can touch many authorization relationships at once.
+ */
+public record AuthorizationDataChangedEvent(String reason) {
+}
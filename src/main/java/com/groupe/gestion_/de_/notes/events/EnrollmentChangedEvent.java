@@ -0,0 +1,12 @@
+package com.groupe.gestion_.de_.notes.events;
+
+/**
+ * Published when a student is enrolled in or removed from a class subject.
+ *
+ * @param studentId The user id of the student.
+ * @param studentIdNum The business id of the student.
+ * @param classId The id of the class.
+ * @param added true for a new enrollment, false for a deletion.
+ */
+public record EnrollmentChangedEvent(Long studentId, String studentIdNum, Long classId, boolean added) {
+}
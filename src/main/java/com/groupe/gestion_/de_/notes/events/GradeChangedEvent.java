@@ -0,0 +1,12 @@
+package com.groupe.gestion_.de_.notes.events;
+
+import java.util.Set;
+
+/**
+ * Published when grades are created, updated or deleted.
+ *
+ * @param studentIds The user ids of the students whose grades changed.
+ * @param subjectIds The ids of the subjects whose grades changed.
+ */
+public record GradeChangedEvent(Set<Long> studentIds, Set<Long> subjectIds) {
+}
@@ -0,0 +1,32 @@
+package com.groupe.gestion_.de_.notes.events;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.groupe.gestion_.de_.notes.model.GradeOutboxEvent;
+
+/**
+ * Published by the outbox poller with the grade changes committed since its previous run,
+ * on every instance and whichever instance made the change.
+ *
+ * @param events The outbox rows, detached.
+ */
+public record GradeOutboxBatchEvent(List<GradeOutboxEvent> events) {
+
+    public Set<Long> studentIds() {
+        return events.stream()
+                .flatMap(event -> Stream.of(event.getStudentId(), event.getPreviousStudentId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    public Set<Long> subjectIds() {
+        return events.stream()
+                .flatMap(event -> Stream.of(event.getSubjectId(), event.getPreviousSubjectId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,9 @@
+package com.groupe.gestion_.de_.notes.events;
+
+/**
+ * Published when the coefficient of a subject changes, which reweighs every overall average.
+ *
+ * @param subjectId The id of the subject.
+ */
+public record SubjectCoefficientChangedEvent(Long subjectId) {
+}
@@ -5,8 +5,8 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.NOT_FOUND) // This ensures an HTTP 404 status code
 public class ResourceNotFoundException extends RuntimeException {
-    public ResourceNotFoundException(String resourceName) {
-        super(String.format("%s not found with %s : '%s'", resourceName));
+    public ResourceNotFoundException(String message) {
+        super(message);
     }
 
 }
@@ -11,15 +11,25 @@ import lombok.experimental.SuperBuilder;
 import java.time.LocalDate; // Assuming 'date' is a specific date, not DateTime
 
 @Entity
-@Table(name = "grades")
+@Table(name = "grades", indexes = {
+        // Keyset pagination walks (date, id) backwards, optionally scoped to one student, subject or teacher
+        @Index(name = "idx_grades_date_id", columnList = "date, id"),
+        @Index(name = "idx_grades_student_date_id", columnList = "student_id, date, id"),
+        @Index(name = "idx_grades_subject_date_id", columnList = "subject_id, date, id"),
+        @Index(name = "idx_grades_teacher_date_id", columnList = "recorded_by_teacher_id, date, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Grade {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence (not IDENTITY) so Hibernate can batch inserts; GradeSequenceInitializer keeps it ahead of existing ids
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "grade_id_seq")
+    @SequenceGenerator(name = "grade_id_seq", sequenceName = "grade_id_seq", allocationSize = Grade.ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
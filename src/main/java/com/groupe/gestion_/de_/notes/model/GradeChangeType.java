@@ -0,0 +1,7 @@
+package com.groupe.gestion_.de_.notes.model;
+
+public enum GradeChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,39 @@
+package com.groupe.gestion_.de_.notes.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * CSV report of the rows rejected by a grade import, kept in the database so that any instance
+ * can serve its download; deleted once older than app.grades.import.report-ttl-hours.
+ */
+@Entity
+@Table(name = "grade_import_reports", indexes = {
+        @Index(name = "idx_grade_import_reports_created_at", columnList = "created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradeImportReport {
+
+    @Id
+    @Column(length = 36)
+    private String id; // random UUID handed to the client, not guessable
+
+    @Column(name = "owner_id")
+    private Long ownerId; // user who ran the import
+
+    @Column(nullable = false)
+    private byte[] csv; // bytea
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,61 @@
+package com.groupe.gestion_.de_.notes.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * One grade change, written in the same transaction as the change itself (transactional outbox).
+ * Ids come from an identity column so they are allocated at insert time, in near commit order;
+ * rows keep plain ids rather than relations because they outlive deleted grades.
+ */
+@Entity
+@Table(name = "grade_outbox", indexes = {
+        @Index(name = "idx_grade_outbox_occurred_at", columnList = "occurred_at"),
+        // scoped change feeds (GradeSyncService)
+        @Index(name = "idx_grade_outbox_student_id", columnList = "student_id, id"),
+        @Index(name = "idx_grade_outbox_previous_student", columnList = "previous_student_id"),
+        @Index(name = "idx_grade_outbox_subject_id", columnList = "subject_id, id"),
+        @Index(name = "idx_grade_outbox_previous_subject", columnList = "previous_subject_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradeOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 16)
+    private GradeChangeType type;
+
+    @Column(name = "grade_id", nullable = false)
+    private Long gradeId;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "subject_id", nullable = false)
+    private Long subjectId;
+
+    @Column(name = "previous_student_id")
+    private Long previousStudentId; // set on updates that moved the grade to another student
+
+    @Column(name = "previous_subject_id")
+    private Long previousSubjectId; // set on updates that moved the grade to another subject
+
+    @Column(name = "grade_value")
+    private Double value; // null for deletions
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
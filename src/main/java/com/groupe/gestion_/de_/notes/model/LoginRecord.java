@@ -12,7 +12,8 @@ import lombok.experimental.SuperBuilder;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "login_records")
+@Table(name = "login_records",
+        uniqueConstraints = @UniqueConstraint(name = "uk_login_records_token_id", columnNames = "token_id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -28,8 +29,14 @@ public class LoginRecord {
 
     private LocalDateTime logOut;
 
+    private LocalDateTime lastActivity; // last authenticated request seen for this session, flushed in batches
+
     private String ipAddress;
 
+    // "jti" of the token this session was recorded for: one row per token, whichever instance saw it first
+    @Column(name = "token_id", length = 64)
+    private String tokenId;
+
     // Relationships
     @ManyToOne(fetch = FetchType.LAZY) // Many login records belong to one user
     @JoinColumn(name = "user_id", nullable = false) // Foreign key to User entity
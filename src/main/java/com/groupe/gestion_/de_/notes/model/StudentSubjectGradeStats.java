@@ -0,0 +1,59 @@
+package com.groupe.gestion_.de_.notes.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDate;
+
+/**
+ * Running aggregates of one student's grades in one subject, kept in step with the grades table
+ * by GradeStatsService inside the same transaction as every grade write.
+ * Averages read this single row instead of scanning the student's grade history.
+ */
+@Entity
+@Table(name = "student_subject_grade_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_grade_stats_student_subject", columnNames = {"student_id", "subject_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StudentSubjectGradeStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE) // derived data, dropped together with the student
+    private Student student;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "subject_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Subject subject;
+
+    @Column(name = "grade_count", nullable = false)
+    private Long gradeCount;
+
+    @Column(name = "grade_sum", nullable = false)
+    private Double gradeSum;
+
+    @Column(name = "sum_squares", nullable = false)
+    private Double sumSquares; // lets the variance be derived without another pass over the grades
+
+    @Column(name = "min_value", nullable = false)
+    private Double minValue;
+
+    @Column(name = "max_value", nullable = false)
+    private Double maxValue;
+
+    @Column(name = "last_date", nullable = false)
+    private LocalDate lastDate;
+}
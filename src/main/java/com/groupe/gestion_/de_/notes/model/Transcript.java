@@ -12,7 +12,11 @@ import lombok.experimental.SuperBuilder;
 import java.time.LocalDateTime; // generation_date likely includes time
 
 @Entity
-@Table(name = "transcripts")
+@Table(name = "transcripts", indexes = {
+        // Workers claim the oldest PENDING rows, the archiver and the ERROR purge scan by status and age
+        @Index(name = "idx_transcripts_status_id", columnList = "status, id"),
+        @Index(name = "idx_transcripts_status_generation_date", columnList = "status, generation_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,14 +28,22 @@ public class Transcript {
     private Long id; // id: Long (PK)
 
     @Column(nullable = false)
-    private LocalDateTime generationDate; // generation_date: DateTime
+    private LocalDateTime generationDate; // generation_date: DateTime (request time until a worker finishes the job)
 
     @Enumerated(EnumType.STRING) // Store enum as String in DB
     @Column(nullable = false)
-    private TranscriptStatus status; // status: Enum (GENERATED, ARCHIVED, ERROR)
+    private TranscriptStatus status; // status: Enum (PENDING, PROCESSING, GENERATED, ARCHIVED, ERROR)
 
     @Column(nullable = false)
-    private String filepath; // filepath: String
+    private String filepath; // filepath: String, relative to app.transcripts.storage-dir
+
+    // Job queue bookkeeping: a PROCESSING row whose claim is older than the lease is requeued
+    private LocalDateTime claimedAt;
+
+    private Integer attempts;
+
+    @Column(length = 500)
+    private String errorMessage;
 
     // Relationships
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,6 +1,8 @@
 package com.groupe.gestion_.de_.notes.model;
 
 public enum TranscriptStatus {
+    PENDING,    // requested, waiting for a worker
+    PROCESSING, // claimed by a worker
     GENERATED,
     ARCHIVED,
     ERROR
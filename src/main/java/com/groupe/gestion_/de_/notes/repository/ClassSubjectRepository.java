@@ -4,6 +4,8 @@ import com.groupe.gestion_.de_.notes.model.ClassSubject;
 import com.groupe.gestion_.de_.notes.model.Class;
 import com.groupe.gestion_.de_.notes.model.Subject;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +16,9 @@ public interface ClassSubjectRepository extends JpaRepository<ClassSubject, Long
     Optional<ClassSubject> findByClassEntityAndSubject(Class classEntity, Subject subject);
     List<ClassSubject> findByClassEntity_Id(Long classId);
     List<ClassSubject> findBySubject_Id(Long subjectId);
+
+    // [subjectCode, name, coefficient] of the subjects taught in the class, by code
+    @Query("select s.subjectCode, s.name, s.coefficient from ClassSubject cs join cs.subject s " +
+            "where cs.classEntity.id = :classId order by s.subjectCode")
+    List<Object[]> findSubjectColumnsByClassId(@Param("classId") Long classId);
 }
\ No newline at end of file
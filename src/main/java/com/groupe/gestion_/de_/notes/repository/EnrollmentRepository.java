@@ -5,6 +5,8 @@ import com.groupe.gestion_.de_.notes.model.Student;
 import com.groupe.gestion_.de_.notes.model.Subject;
 import com.groupe.gestion_.de_.notes.model.Class;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -19,4 +21,40 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     List<Enrollment> findByClassEntity_Id(Long classId);
     List<Enrollment> findByStudentStudentIdNumAndClassEntity_Id(String studentIdNum, Long classId);
     boolean existsByStudent_StudentIdNumAndClassEntity_IdAndSubject_SubjectCode(String studentIdNum, Long classId, String subjectCode);
+
+    boolean existsByStudent_IdAndClassEntity_Id(Long studentId, Long classId);
+    boolean existsByIdAndStudent_Id(Long enrollmentId, Long studentId);
+
+    // true if the teacher is assigned to the enrollment's class, or teaches its subject in one of their classes
+    @Query("select case when count(e) > 0 then true else false end from Enrollment e " +
+            "where e.id = :enrollmentId and (" +
+            "exists (select 1 from TeacherClass tc where tc.teacher.id = :teacherId and tc.classEntity.id = e.classEntity.id) " +
+            "or exists (select 1 from TeacherClass tc2, ClassSubject cs where tc2.teacher.id = :teacherId " +
+            "and cs.classEntity.id = tc2.classEntity.id and cs.subject.id = e.subject.id))")
+    boolean existsTeacherAssignmentToEnrollment(@Param("teacherId") Long teacherId, @Param("enrollmentId") Long enrollmentId);
+
+    @Query("select distinct e.student.id from Enrollment e where e.classEntity.id = :classId")
+    List<Long> findStudentIdsByClassId(@Param("classId") Long classId);
+
+    // [studentId, studentIdNum, firstname, lastname] of every student enrolled in the class, by studentIdNum
+    @Query("select distinct st.id, st.studentIdNum, st.firstname, st.lastname from Enrollment e join e.student st " +
+            "where e.classEntity.id = :classId order by st.studentIdNum")
+    List<Object[]> findEnrolledStudentsByClassId(@Param("classId") Long classId);
+
+    // [enrollmentId, classId, className, subjectCode, subjectName, coefficient, semester, academicYear, enrollmentDate]
+    @Query("select e.id, c.id, c.name, s.subjectCode, s.name, s.coefficient, e.semester, e.academicYear, e.enrollmentDate " +
+            "from Enrollment e join e.classEntity c join e.subject s where e.student.id = :studentId " +
+            "order by e.academicYear, c.name, s.subjectCode")
+    List<Object[]> findDashboardRowsByStudentId(@Param("studentId") Long studentId);
+
+    // [studentId, subjectCode, subjectName] of every enrollment of the students enrolled in the class, by student
+    @Query("select e.student.id, s.subjectCode, s.name from Enrollment e join e.subject s " +
+            "where e.student.id in (select e2.student.id from Enrollment e2 where e2.classEntity.id = :classId) " +
+            "order by e.student.id, e.academicYear, s.subjectCode")
+    List<Object[]> findTranscriptRowsByClassId(@Param("classId") Long classId);
+
+    // Same rows as findTranscriptRowsByClassId, for a single student
+    @Query("select e.student.id, s.subjectCode, s.name from Enrollment e join e.subject s " +
+            "where e.student.id = :studentId order by e.academicYear, s.subjectCode")
+    List<Object[]> findTranscriptRowsByStudentId(@Param("studentId") Long studentId);
 }
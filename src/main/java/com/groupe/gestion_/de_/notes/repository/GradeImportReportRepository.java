@@ -0,0 +1,21 @@
+package com.groupe.gestion_.de_.notes.repository;
+
+import com.groupe.gestion_.de_.notes.model.GradeImportReport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface GradeImportReportRepository extends JpaRepository<GradeImportReport, String> {
+
+    Optional<GradeImportReport> findByIdAndCreatedAtAfter(String id, LocalDateTime after);
+
+    @Modifying
+    @Query("delete from GradeImportReport r where r.createdAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
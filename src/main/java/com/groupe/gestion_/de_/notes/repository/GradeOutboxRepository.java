@@ -0,0 +1,66 @@
+package com.groupe.gestion_.de_.notes.repository;
+
+import com.groupe.gestion_.de_.notes.model.GradeOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface GradeOutboxRepository extends JpaRepository<GradeOutboxEvent, Long> {
+
+    // Batched by GradeOutboxServiceImpl through JDBC, identity ids being assigned by the database
+    String INSERT_SQL = "insert into grade_outbox (event_type, grade_id, student_id, subject_id, " +
+            "previous_student_id, previous_subject_id, grade_value, occurred_at) " +
+            "values (:type, :gradeId, :studentId, :subjectId, :previousStudentId, :previousSubjectId, :value, :occurredAt)";
+
+    // Run before INSERT_SQL: the writing transaction gets its id before the identity hands out the event id,
+    // which is what lets GradeOutboxPoller tell a skipped id still in flight from one that will never commit
+    String ASSIGN_TRANSACTION_ID_SQL = "SELECT pg_current_xact_id()";
+
+    @Query("select e from GradeOutboxEvent e where e.id > :afterId and e.id <= :upToId order by e.id")
+    List<GradeOutboxEvent> findRange(@Param("afterId") long afterId, @Param("upToId") long upToId, Pageable pageable);
+
+    // Events touching one student or one subject, including grades moved away from it
+    @Query("select e from GradeOutboxEvent e where e.id > :afterId and e.id <= :upToId " +
+            "and (e.studentId = :studentId or e.previousStudentId = :studentId) order by e.id")
+    List<GradeOutboxEvent> findRangeByStudentId(@Param("afterId") long afterId, @Param("upToId") long upToId,
+                                                @Param("studentId") Long studentId, Pageable pageable);
+
+    @Query("select e from GradeOutboxEvent e where e.id > :afterId and e.id <= :upToId " +
+            "and (e.subjectId = :subjectId or e.previousSubjectId = :subjectId) order by e.id")
+    List<GradeOutboxEvent> findRangeBySubjectId(@Param("afterId") long afterId, @Param("upToId") long upToId,
+                                                @Param("subjectId") Long subjectId, Pageable pageable);
+
+    List<GradeOutboxEvent> findByIdIn(Collection<Long> ids);
+
+    @Query("select min(e.id) from GradeOutboxEvent e")
+    Long findMinId();
+
+    @Query("select coalesce(max(e.id), 0) from GradeOutboxEvent e")
+    long findMaxId();
+
+    // Last id handed out by the identity, committed or not; unlike findMaxId it survives a purge of every row
+    @Query(value = "SELECT coalesce(max(s.last_value), 0) FROM pg_sequences s " +
+            "WHERE quote_ident(s.schemaname) || '.' || quote_ident(s.sequencename) = pg_get_serial_sequence('grade_outbox', 'id')",
+            nativeQuery = true)
+    long findLastAllocatedId();
+
+    // Oldest transaction id still running: every transaction below it has committed or rolled back
+    @Query(value = "SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)", nativeQuery = true)
+    long findSnapshotXmin();
+
+    // First transaction id not yet assigned: every transaction that already holds an id is below it
+    @Query(value = "SELECT CAST(CAST(pg_snapshot_xmax(pg_current_snapshot()) AS text) AS bigint)", nativeQuery = true)
+    long findSnapshotXmax();
+
+    @Modifying
+    @Query("delete from GradeOutboxEvent e where e.occurredAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
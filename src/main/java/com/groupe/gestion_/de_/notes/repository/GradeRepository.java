@@ -1,20 +1,106 @@
 package com.groupe.gestion_.de_.notes.repository;
 
+import com.groupe.gestion_.de_.notes.dto.GradeResponse;
 import com.groupe.gestion_.de_.notes.model.Grade;
 import com.groupe.gestion_.de_.notes.model.Student;
 import com.groupe.gestion_.de_.notes.model.Subject;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface GradeRepository extends JpaRepository<Grade, Long> {
-    List<Grade> findByStudentStudentIdNum(String studentIdNum);
-    List<Grade> findBySubjectSubjectCode(String subjectCode);
-    List<Grade> findByStudent_StudentIdNumAndSubject_SubjectCode(String studentIdNum, String subjectCode);
+public interface GradeRepository extends JpaRepository<Grade, Long>, GradeRepositoryCustom {
+    // --- GradeResponse projections: exactly the DTO columns in one joined query, no entity or proxy loaded ---
+
+    String GRADE_RESPONSE_SELECT = "select new com.groupe.gestion_.de_.notes.dto.GradeResponse(" +
+            "g.id, g.value, g.date, g.comment, st.studentIdNum, st.firstname, st.lastname, s.subjectCode, s.name, t.teacherIdNum) " +
+            "from Grade g join g.student st join g.subject s left join g.recordedByTeacher t ";
+
+    @Query(GRADE_RESPONSE_SELECT + "where g.id = :id")
+    Optional<GradeResponse> findResponseById(@Param("id") Long id);
+
+    @Query(GRADE_RESPONSE_SELECT + "order by g.id")
+    List<GradeResponse> findAllResponses();
+
+    @Query(GRADE_RESPONSE_SELECT + "where g.id in :ids")
+    List<GradeResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(GRADE_RESPONSE_SELECT + "where st.studentIdNum = :studentIdNum order by g.date, g.id")
+    List<GradeResponse> findResponsesByStudentIdNum(@Param("studentIdNum") String studentIdNum);
+
+    @Query(GRADE_RESPONSE_SELECT + "where s.subjectCode = :subjectCode order by g.date, g.id")
+    List<GradeResponse> findResponsesBySubjectCode(@Param("subjectCode") String subjectCode);
+
+    @Query(GRADE_RESPONSE_SELECT + "where st.studentIdNum = :studentIdNum and s.subjectCode = :subjectCode order by g.date, g.id")
+    List<GradeResponse> findResponsesByStudentIdNumAndSubjectCode(@Param("studentIdNum") String studentIdNum,
+                                                                   @Param("subjectCode") String subjectCode);
+
+    @Query(GRADE_RESPONSE_SELECT + "where t.teacherIdNum = :teacherIdNum order by g.date, g.id")
+    List<GradeResponse> findResponsesByTeacherIdNum(@Param("teacherIdNum") String teacherIdNum);
+
+    // [subjectCode, subjectName, coefficient, gradeId, value, date, comment, recordedBy] of a student, grouped by subject
+    @Query("select s.subjectCode, s.name, s.coefficient, g.id, g.value, g.date, g.comment, t.teacherIdNum " +
+            "from Grade g join g.subject s left join g.recordedByTeacher t where g.student.id = :studentId " +
+            "order by s.subjectCode, g.date, g.id")
+    List<Object[]> findDashboardRowsByStudentId(@Param("studentId") Long studentId);
+
+    // [studentId, subjectCode, coefficient, value] of every grade of the students enrolled in the class, by student
+    @Query("select g.student.id, s.subjectCode, s.coefficient, g.value from Grade g join g.subject s " +
+            "where g.student.id in (select e.student.id from Enrollment e where e.classEntity.id = :classId) " +
+            "order by g.student.id, s.subjectCode, g.date, g.id")
+    List<Object[]> findTranscriptRowsByClassId(@Param("classId") Long classId);
+
+    // Same rows as findTranscriptRowsByClassId, for a single student
+    @Query("select g.student.id, s.subjectCode, s.coefficient, g.value from Grade g join g.subject s " +
+            "where g.student.id = :studentId order by s.subjectCode, g.date, g.id")
+    List<Object[]> findTranscriptRowsByStudentId(@Param("studentId") Long studentId);
+
     Optional<Grade> findByStudentAndSubjectAndDate(Student student, Subject subject, LocalDate date);
-    List<Grade> findByRecordedByTeacher_TeacherIdNum(String teacherIdNum);
-}
\ No newline at end of file
+    boolean existsByIdAndStudent_Id(Long gradeId, Long studentId);
+
+    // true if the teacher recorded the grade, teaches its subject in one of their classes,
+    // or has the graded student in one of their classes
+    @Query("select case when count(g) > 0 then true else false end from Grade g " +
+            "left join g.recordedByTeacher rt " +
+            "where g.id = :gradeId and (rt.id = :teacherId " +
+            "or exists (select 1 from TeacherClass tc, ClassSubject cs where tc.teacher.id = :teacherId " +
+            "and cs.classEntity.id = tc.classEntity.id and cs.subject.id = g.subject.id) " +
+            "or exists (select 1 from TeacherClass tc2, Enrollment e where tc2.teacher.id = :teacherId " +
+            "and e.classEntity.id = tc2.classEntity.id and e.student.id = g.student.id))")
+    boolean existsTeacherAssignmentToGrade(@Param("teacherId") Long teacherId, @Param("gradeId") Long gradeId);
+
+    // Whole table as DTO rows, read through a server-side cursor: nothing is held in the persistence context.
+    // Must be consumed (and closed) inside a transaction.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(GRADE_RESPONSE_SELECT + "order by g.id")
+    Stream<GradeResponse> streamAllAsResponses();
+
+    // Bare values for the one-pass distribution statistics
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select g.value from Grade g where g.subject.id = :subjectId and g.value is not null")
+    Stream<Double> streamValuesBySubjectId(@Param("subjectId") Long subjectId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select g.value from Grade g where g.value is not null " +
+            "and g.student.id in (select e.student.id from Enrollment e where e.classEntity.id = :classId)")
+    Stream<Double> streamValuesByClassId(@Param("classId") Long classId);
+}
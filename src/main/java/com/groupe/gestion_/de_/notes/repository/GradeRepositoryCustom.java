@@ -0,0 +1,17 @@
+package com.groupe.gestion_.de_.notes.repository;
+
+import com.groupe.gestion_.de_.notes.dto.GradeCursor;
+import com.groupe.gestion_.de_.notes.dto.GradeFilter;
+import com.groupe.gestion_.de_.notes.dto.GradeResponse;
+
+import java.util.List;
+
+public interface GradeRepositoryCustom {
+
+    /**
+     * Keyset page of grades matching the filter, ordered by date then id (both descending).
+     * @param after cursor of the last row of the previous page, null for the first page.
+     * @param limit maximum number of rows returned.
+     */
+    List<GradeResponse> findPage(GradeFilter filter, GradeCursor after, int limit);
+}
@@ -0,0 +1,89 @@
+package com.groupe.gestion_.de_.notes.repository;
+
+import com.groupe.gestion_.de_.notes.dto.GradeCursor;
+import com.groupe.gestion_.de_.notes.dto.GradeFilter;
+import com.groupe.gestion_.de_.notes.dto.GradeResponse;
+import com.groupe.gestion_.de_.notes.model.Grade;
+import com.groupe.gestion_.de_.notes.model.Student;
+import com.groupe.gestion_.de_.notes.model.Subject;
+import com.groupe.gestion_.de_.notes.model.Teacher;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria implementation of the keyset grade listing.
+ * Rows are projected straight into GradeResponse, so a page is one statement whatever its size,
+ * and "after the cursor" is a range predicate on (date, id) instead of an OFFSET scan.
+ */
+public class GradeRepositoryCustomImpl implements GradeRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<GradeResponse> findPage(GradeFilter filter, GradeCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<GradeResponse> query = cb.createQuery(GradeResponse.class);
+        Root<Grade> grade = query.from(Grade.class);
+        Join<Grade, Student> student = grade.join("student");
+        Join<Grade, Subject> subject = grade.join("subject");
+        Join<Grade, Teacher> teacher = grade.join("recordedByTeacher", JoinType.LEFT);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getStudentIdNum() != null) {
+            predicates.add(cb.equal(student.get("studentIdNum"), filter.getStudentIdNum()));
+        }
+        if (filter.getSubjectCode() != null) {
+            predicates.add(cb.equal(subject.get("subjectCode"), filter.getSubjectCode()));
+        }
+        if (filter.getTeacherIdNum() != null) {
+            predicates.add(cb.equal(teacher.get("teacherIdNum"), filter.getTeacherIdNum()));
+        }
+        if (filter.getFromDate() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(grade.<LocalDate>get("date"), filter.getFromDate()));
+        }
+        if (filter.getToDate() != null) {
+            predicates.add(cb.lessThanOrEqualTo(grade.<LocalDate>get("date"), filter.getToDate()));
+        }
+        if (filter.getMinValue() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(grade.<Double>get("value"), filter.getMinValue()));
+        }
+        if (filter.getMaxValue() != null) {
+            predicates.add(cb.lessThanOrEqualTo(grade.<Double>get("value"), filter.getMaxValue()));
+        }
+        if (after != null) {
+            // (date, id) < (cursor.date, cursor.id)
+            predicates.add(cb.or(
+                    cb.lessThan(grade.<LocalDate>get("date"), after.date()),
+                    cb.and(cb.equal(grade.get("date"), after.date()), cb.lessThan(grade.<Long>get("id"), after.id()))));
+        }
+
+        query.select(cb.construct(GradeResponse.class,
+                        grade.get("id"),
+                        grade.get("value"),
+                        grade.get("date"),
+                        grade.get("comment"),
+                        student.get("studentIdNum"),
+                        student.get("firstname"),
+                        student.get("lastname"),
+                        subject.get("subjectCode"),
+                        subject.get("name"),
+                        teacher.get("teacherIdNum")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(grade.get("date")), cb.desc(grade.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -2,12 +2,20 @@ package com.groupe.gestion_.de_.notes.repository;
 
 import com.groupe.gestion_.de_.notes.model.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
     Optional<Student> findByStudentIdNum(String studentIdNum);
     Boolean existsByStudentIdNum(String studentIdNum);
+    List<Student> findByStudentIdNumIn(Collection<String> studentIdNums);
+
+    // [studentIdNum, id] of every student, preloaded by bulk imports
+    @Query("select s.studentIdNum, s.id from Student s")
+    List<Object[]> findAllStudentIdNumsAndIds();
 }
@@ -0,0 +1,117 @@
+package com.groupe.gestion_.de_.notes.repository;
+
+import com.groupe.gestion_.de_.notes.dto.StudentAverageResponse;
+import com.groupe.gestion_.de_.notes.model.StudentSubjectGradeStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StudentSubjectGradeStatsRepository extends JpaRepository<StudentSubjectGradeStats, Long> {
+
+    // --- Reads: one row per (student, subject) instead of one per grade ---
+
+    @Query("select st.gradeSum / st.gradeCount from StudentSubjectGradeStats st " +
+            "where st.student.studentIdNum = :studentIdNum and st.subject.subjectCode = :subjectCode")
+    Double averageByStudentAndSubject(@Param("studentIdNum") String studentIdNum, @Param("subjectCode") String subjectCode);
+
+    @Query("select sum(st.gradeSum) / nullif(sum(st.gradeCount), 0) from StudentSubjectGradeStats st " +
+            "where st.subject.subjectCode = :subjectCode")
+    Double averageBySubject(@Param("subjectCode") String subjectCode);
+
+    // Each grade weighs its subject's coefficient, exactly as if the grades were summed one by one
+    @Query("select sum(st.gradeSum * s.coefficient) / nullif(sum(st.gradeCount * s.coefficient), 0.0) " +
+            "from StudentSubjectGradeStats st join st.subject s where st.student.studentIdNum = :studentIdNum")
+    Double weightedAverageByStudent(@Param("studentIdNum") String studentIdNum);
+
+    @Query("select new com.groupe.gestion_.de_.notes.dto.StudentAverageResponse(" +
+            "stu.studentIdNum, stu.firstname, stu.lastname, sum(st.gradeSum * s.coefficient) / nullif(sum(st.gradeCount * s.coefficient), 0.0)) " +
+            "from Student stu left join StudentSubjectGradeStats st on st.student = stu left join st.subject s " +
+            "where stu.id in (select e.student.id from Enrollment e where e.classEntity.id = :classId) " +
+            "group by stu.id, stu.studentIdNum, stu.firstname, stu.lastname " +
+            "order by stu.studentIdNum")
+    List<StudentAverageResponse> findWeightedAveragesByClassId(@Param("classId") Long classId);
+
+    // [studentId, subjectCode, gradeSum, gradeCount, coefficient] rows feeding the class rankings
+    @Query("select st.student.id, s.subjectCode, st.gradeSum, st.gradeCount, s.coefficient " +
+            "from StudentSubjectGradeStats st join st.subject s " +
+            "where st.student.id in (select e.student.id from Enrollment e where e.classEntity.id = :classId)")
+    List<Object[]> findRankingRowsByClassId(@Param("classId") Long classId);
+
+    @Query("select st.student.id, s.subjectCode, st.gradeSum, st.gradeCount, s.coefficient " +
+            "from StudentSubjectGradeStats st join st.subject s where st.student.id in :studentIds")
+    List<Object[]> findRankingRowsByStudentIds(@Param("studentIds") Collection<Long> studentIds);
+
+    // --- Writes (PostgreSQL upserts, atomic under concurrent grade writes) ---
+
+    // Transaction-scoped lock of each (student, subject) pair, taken before touching its row: the recompute would
+    // otherwise overwrite an upsert committed after its snapshot. Taken in a fixed order so batches cannot deadlock.
+    // The key is a 64-bit hash of the ids, so it never overflows whatever their size.
+    String LOCK_PAIRS_SQL = "SELECT pg_advisory_xact_lock(hashtextextended('grade-stats:' || p.student_id || ':' || p.subject_id, 0)) " +
+            "FROM (SELECT DISTINCT u.student_id, u.subject_id " +
+            "FROM unnest(CAST(:studentIds AS bigint[]), CAST(:subjectIds AS bigint[])) AS u(student_id, subject_id) " +
+            "ORDER BY u.student_id, u.subject_id) p";
+
+    // Table-level lock: held shared by every pair writer before its pair locks, and exclusively by a rebuild
+    // so that its DELETE + INSERT never interleaves with a pair update
+    String LOCK_TABLE_SHARED_SQL = "SELECT pg_advisory_xact_lock_shared(hashtextextended('grade-stats', 0))";
+    String LOCK_TABLE_SQL = "SELECT pg_advisory_xact_lock(hashtextextended('grade-stats', 0))";
+
+    // Folds one new grade into its row; run as a JDBC batch by GradeStatsServiceImpl
+    String ADD_GRADE_SQL = "INSERT INTO student_subject_grade_stats AS st " +
+            "(student_id, subject_id, grade_count, grade_sum, sum_squares, min_value, max_value, last_date) " +
+            "VALUES (:studentId, :subjectId, 1, :value, :value * :value, :value, :value, :date) " +
+            "ON CONFLICT (student_id, subject_id) DO UPDATE SET " +
+            "grade_count = st.grade_count + 1, " +
+            "grade_sum = st.grade_sum + EXCLUDED.grade_sum, " +
+            "sum_squares = st.sum_squares + EXCLUDED.sum_squares, " +
+            "min_value = LEAST(st.min_value, EXCLUDED.min_value), " +
+            "max_value = GREATEST(st.max_value, EXCLUDED.max_value), " +
+            "last_date = GREATEST(st.last_date, EXCLUDED.last_date)";
+
+    // Min/max cannot be "un-applied", so updates and deletes recompute the pair from its grades
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO student_subject_grade_stats AS st " +
+            "(student_id, subject_id, grade_count, grade_sum, sum_squares, min_value, max_value, last_date) " +
+            "SELECT g.student_id, g.subject_id, count(*), sum(g.value), sum(g.value * g.value), min(g.value), max(g.value), max(g.date) " +
+            "FROM grades g WHERE g.student_id = :studentId AND g.subject_id = :subjectId " +
+            "GROUP BY g.student_id, g.subject_id " +
+            "ON CONFLICT (student_id, subject_id) DO UPDATE SET " +
+            "grade_count = EXCLUDED.grade_count, grade_sum = EXCLUDED.grade_sum, sum_squares = EXCLUDED.sum_squares, " +
+            "min_value = EXCLUDED.min_value, max_value = EXCLUDED.max_value, last_date = EXCLUDED.last_date", nativeQuery = true)
+    int recomputePair(@Param("studentId") Long studentId, @Param("subjectId") Long subjectId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM student_subject_grade_stats st " +
+            "WHERE st.student_id = :studentId AND st.subject_id = :subjectId " +
+            "AND NOT EXISTS (SELECT 1 FROM grades g WHERE g.student_id = :studentId AND g.subject_id = :subjectId)", nativeQuery = true)
+    int deletePairIfEmpty(@Param("studentId") Long studentId, @Param("subjectId") Long subjectId);
+
+    // --- Backfill and consistency ---
+
+    @Modifying
+    @Query(value = "DELETE FROM student_subject_grade_stats", nativeQuery = true)
+    int deleteAllStats();
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO student_subject_grade_stats " +
+            "(student_id, subject_id, grade_count, grade_sum, sum_squares, min_value, max_value, last_date) " +
+            "SELECT g.student_id, g.subject_id, count(*), sum(g.value), sum(g.value * g.value), min(g.value), max(g.value), max(g.date) " +
+            "FROM grades g GROUP BY g.student_id, g.subject_id", nativeQuery = true)
+    int insertAllFromGrades();
+
+    // Pairs whose stored aggregates no longer match the grades table (missing, orphaned or drifted rows)
+    @Query(value = "SELECT count(*) FROM (" +
+            "SELECT student_id, subject_id, count(*) AS c, sum(value) AS s, sum(value * value) AS q, " +
+            "min(value) AS mn, max(value) AS mx, max(date) AS d FROM grades GROUP BY student_id, subject_id) g " +
+            "FULL OUTER JOIN student_subject_grade_stats st USING (student_id, subject_id) " +
+            "WHERE g.c IS NULL OR st.grade_count IS NULL OR st.grade_count <> g.c " +
+            "OR abs(st.grade_sum - g.s) > 1e-6 OR abs(st.sum_squares - g.q) > 1e-6 " +
+            "OR st.min_value <> g.mn OR st.max_value <> g.mx OR st.last_date <> g.d", nativeQuery = true)
+    long countInconsistentPairs();
+}
@@ -2,8 +2,11 @@ package com.groupe.gestion_.de_.notes.repository;
 
 import com.groupe.gestion_.de_.notes.model.Subject;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +15,9 @@ public interface SubjectRepository extends JpaRepository<Subject, Long> {
     Optional<Subject> findByName(String name);
     boolean existsBySubjectCode(String subjectCode);
     boolean existsByName(String name);
+    List<Subject> findBySubjectCodeIn(Collection<String> subjectCodes);
+
+    // [subjectCode, id] of every subject, preloaded by bulk imports
+    @Query("select s.subjectCode, s.id from Subject s")
+    List<Object[]> findAllSubjectCodesAndIds();
 }
\ No newline at end of file
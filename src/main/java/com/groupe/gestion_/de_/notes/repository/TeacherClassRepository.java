@@ -2,6 +2,8 @@ package com.groupe.gestion_.de_.notes.repository;
 
 import com.groupe.gestion_.de_.notes.model.TeacherClass;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +15,25 @@ public interface TeacherClassRepository extends JpaRepository<TeacherClass, Long
     List<TeacherClass> findByTeacher_TeacherIdNum(String teacherIdNum);
     List<TeacherClass> findByClassEntity_Id(Long classId);
     boolean existsByTeacher_TeacherIdNumAndClassEntity_Id(String teacherIdNum, Long classId);
+
+    boolean existsByTeacher_IdAndClassEntity_Id(Long teacherId, Long classId);
+
+    // true if one of the teacher's classes teaches the subject
+    @Query("select case when count(tc) > 0 then true else false end " +
+            "from TeacherClass tc, ClassSubject cs " +
+            "where tc.teacher.id = :teacherId and cs.classEntity.id = tc.classEntity.id " +
+            "and cs.subject.subjectCode = :subjectCode")
+    boolean existsTeacherAssignmentToSubject(@Param("teacherId") Long teacherId, @Param("subjectCode") String subjectCode);
+
+    // true if the student is enrolled in one of the teacher's classes
+    @Query("select case when count(tc) > 0 then true else false end " +
+            "from TeacherClass tc, Enrollment e " +
+            "where tc.teacher.id = :teacherId and e.classEntity.id = tc.classEntity.id " +
+            "and e.student.studentIdNum = :studentIdNum")
+    boolean existsTeacherAssignmentToStudent(@Param("teacherId") Long teacherId, @Param("studentIdNum") String studentIdNum);
+
+    // Codes of every subject taught in one of the teacher's classes
+    @Query("select distinct cs.subject.subjectCode from TeacherClass tc, ClassSubject cs " +
+            "where tc.teacher.id = :teacherId and cs.classEntity.id = tc.classEntity.id")
+    List<String> findAssignedSubjectCodesByTeacherId(@Param("teacherId") Long teacherId);
 }
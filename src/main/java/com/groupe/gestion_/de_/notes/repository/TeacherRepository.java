@@ -2,8 +2,10 @@ package com.groupe.gestion_.de_.notes.repository;
 
 import com.groupe.gestion_.de_.notes.model.Teacher;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +16,9 @@ public interface TeacherRepository extends JpaRepository<Teacher, Long> {
     //Optional<Teacher> findByTeacher_TeacherIdNumAndClassEntity_Id(String teacherIdNum, Long classId);
     //boolean existsByTeacher_TeacherIdNumAndClassEntity_Id(String teacherIdNum, Long classId);
     boolean existsByTeacherIdNum(String teacherIdNum);
+    List<Teacher> findByTeacherIdNumIn(Collection<String> teacherIdNums);
+
+    // [teacherIdNum, id] of every teacher, preloaded by bulk imports
+    @Query("select t.teacherIdNum, t.id from Teacher t")
+    List<Object[]> findAllTeacherIdNumsAndIds();
 }
@@ -4,8 +4,13 @@ import com.groupe.gestion_.de_.notes.model.Transcript;
 import com.groupe.gestion_.de_.notes.model.Student;
 import com.groupe.gestion_.de_.notes.model.TranscriptStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +19,77 @@ public interface TranscriptRepository extends JpaRepository<Transcript, Long> {
     List<Transcript> findByStudent_Id(Long studentId);
     List<Transcript> findByStatus(TranscriptStatus status);
     Optional<Transcript> findByStudentAndFilepath(Student student, String filepath);
+
+    List<Transcript> findByStudent_IdOrderByIdDesc(Long studentId);
+
+    Optional<Transcript> findByIdAndStudent_Id(Long id, Long studentId);
+
+    Optional<Transcript> findFirstByStudent_IdAndStatusInOrderByIdDesc(Long studentId, Collection<TranscriptStatus> statuses);
+
+    Optional<Transcript> findFirstByStudent_IdAndFilepathAndStatusOrderByIdDesc(Long studentId, String filepath, TranscriptStatus status);
+
+    // --- Job queue ---
+
+    // Rows locked by another worker's claim are skipped instead of waited for
+    @Query(value = "SELECT id FROM transcripts WHERE status = 'PENDING' ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockPendingIds(@Param("limit") int limit);
+
+    @Modifying
+    @Query("update Transcript t set t.status = :status, t.claimedAt = :claimedAt, " +
+            "t.attempts = coalesce(t.attempts, 0) + 1 where t.id in :ids")
+    int markClaimed(@Param("ids") Collection<Long> ids, @Param("status") TranscriptStatus status,
+                    @Param("claimedAt") LocalDateTime claimedAt);
+
+    // Rows: id, student, filepath, attempts
+    @Query("select t.id, s, t.filepath, t.attempts from Transcript t join t.student s where t.id in :ids")
+    List<Object[]> findJobRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Only applies while the worker's claim still stands, a requeued job belongs to its new claimer
+    @Modifying
+    @Query("update Transcript t set t.status = :status, t.generationDate = :at, t.errorMessage = :errorMessage, " +
+            "t.filepath = :filepath, t.claimedAt = null where t.id = :id and t.claimedAt = :claimedAt")
+    int finishClaim(@Param("id") Long id, @Param("claimedAt") LocalDateTime claimedAt,
+                    @Param("status") TranscriptStatus status, @Param("at") LocalDateTime at,
+                    @Param("errorMessage") String errorMessage, @Param("filepath") String filepath);
+
+    @Modifying
+    @Query("update Transcript t set t.status = :pending, t.claimedAt = null " +
+            "where t.status = :processing and t.claimedAt < :before and t.attempts < :maxAttempts")
+    int requeueExpiredClaims(@Param("pending") TranscriptStatus pending, @Param("processing") TranscriptStatus processing,
+                             @Param("before") LocalDateTime before, @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query("update Transcript t set t.status = :error, t.claimedAt = null, t.errorMessage = :errorMessage " +
+            "where t.status = :processing and t.claimedAt < :before")
+    int failExpiredClaims(@Param("error") TranscriptStatus error, @Param("processing") TranscriptStatus processing,
+                          @Param("before") LocalDateTime before, @Param("errorMessage") String errorMessage);
+
+    // --- Archival ---
+
+    @Query(value = "SELECT id FROM transcripts WHERE status = 'GENERATED' AND generation_date < :before " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockArchivableIds(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    // Rows: id, filepath, generationDate
+    @Query("select t.id, t.filepath, t.generationDate from Transcript t where t.id in :ids")
+    List<Object[]> findArchiveRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Transcript t set t.status = :status, t.filepath = :filepath where t.id in :ids")
+    int markArchived(@Param("ids") Collection<Long> ids, @Param("status") TranscriptStatus status,
+                     @Param("filepath") String filepath);
+
+    // Dated when failed, so the purge of old ERROR rows keeps them for max-age-days like the other failures
+    @Modifying
+    @Query("update Transcript t set t.status = :status, t.errorMessage = :errorMessage, t.generationDate = :at " +
+            "where t.id in :ids")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("status") TranscriptStatus status,
+                   @Param("errorMessage") String errorMessage, @Param("at") LocalDateTime at);
+
+    boolean existsByFilepath(String filepath);
+
+    // Failed jobs have no document to keep
+    @Modifying
+    @Query("delete from Transcript t where t.status = :status and t.generationDate < :before")
+    int deleteByStatusOlderThan(@Param("status") TranscriptStatus status, @Param("before") LocalDateTime before);
 }
@@ -2,6 +2,7 @@ package com.groupe.gestion_.de_.notes.security.Authentication;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.springframework.http.ResponseEntity;
@@ -23,7 +24,8 @@ import com.groupe.gestion_.de_.notes.repository.StudentRepository;
 import com.groupe.gestion_.de_.notes.repository.TeacherRepository;
 import com.groupe.gestion_.de_.notes.repository.UserRepository;
 import com.groupe.gestion_.de_.notes.security.Jwt.JwtUtils;
-import com.groupe.gestion_.de_.notes.services.ServiceImplementation.LoginRecordsServiceImpl;
+import com.groupe.gestion_.de_.notes.security.SecurityUserService.UserPrincipal;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.LoginActivityService;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -37,7 +39,7 @@ public class AuthController {
 
     private final AuthenticationManager authenticationManager;
     private final JwtUtils jwtUtils;
-    private final LoginRecordsServiceImpl loginRecordsServiceImpl;
+    private final LoginActivityService loginActivityService;
     private final UserRepository userRepository;
     private final StudentRepository studentRepository;
     private final TeacherRepository teacherRepository;
@@ -49,7 +51,6 @@ public class AuthController {
                 new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateJwtToken(authentication);
 
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         List<String> roles = userDetails.getAuthorities().stream()
@@ -88,12 +89,20 @@ public class AuthController {
             // Not a teacher, continue
         }
 
-        // Check for an existing, un-logged-out record and log it out first
-        loginRecordsServiceImpl.recordLogout(user.getUsername());
-
-        // Record the successful login
+        // Identity claims are signed into the token so later requests never reload the user
+        UserPrincipal userPrincipal = UserPrincipal.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .role(user.getRole())
+                .studentIdNum(studentIdNum)
+                .teacherIdNum(teacherIdNum)
+                .tokenId(UUID.randomUUID().toString())
+                .build();
+        String jwt = jwtUtils.generateJwtToken(userPrincipal);
+
+        // Close any previous open session and record this login once for the new token
         String ipAddress = request.getRemoteAddr();
-        loginRecordsServiceImpl.recordLogin(user.getUsername(), ipAddress);
+        loginActivityService.registerSignin(userPrincipal, ipAddress);
 
         System.out.println("📤 Returning JWT response - username: " + user.getUsername() + 
                            ", studentIdNum: " + studentIdNum + ", teacherIdNum: " + teacherIdNum);
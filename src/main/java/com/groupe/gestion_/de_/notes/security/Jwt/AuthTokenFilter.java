@@ -2,6 +2,7 @@ package com.groupe.gestion_.de_.notes.security.Jwt;
 
 import com.groupe.gestion_.de_.notes.security.SecurityUserService.UserDetailsServiceImpl;
 import com.groupe.gestion_.de_.notes.security.Jwt.CustomAuthenticationSuccessHandler;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -35,10 +36,16 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            Claims claims = jwt != null ? jwtUtils.verifyJwtToken(jwt).orElse(null) : null;
+            if (claims != null) {
+
+                // The principal is rebuilt from the signed claims: no DB round trip on the hot path.
+                // Tokens issued before the identity claims existed still go through the user lookup until they expire.
+                UserDetails userDetails = jwtUtils.getPrincipalFromClaims(claims);
+                if (userDetails == null) {
+                    userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+                }
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -1,12 +1,12 @@
 package com.groupe.gestion_.de_.notes.security.Jwt;
 
-import com.groupe.gestion_.de_.notes.services.ServiceImplementation.LoginRecordsServiceImpl;
+import com.groupe.gestion_.de_.notes.security.SecurityUserService.UserPrincipal;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.LoginActivityService;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
 import java.io.IOException;
@@ -15,19 +15,20 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class CustomAuthenticationSuccessHandler implements AuthenticationSuccessHandler {
 
-    private final LoginRecordsServiceImpl loginRecordsServiceImpl;
+    private final LoginActivityService loginActivityService;
 
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response, Authentication authentication) throws IOException, ServletException {
-        // to Retrieve the authenticated user's username
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        String username = userDetails.getUsername();
+        // Only token principals carry a session id; legacy tokens are not audited per request
+        if (!(authentication.getPrincipal() instanceof UserPrincipal userPrincipal)) {
+            return;
+        }
 
         // Getting the client's IP address if there is
         String ipAddress = request.getRemoteAddr();
 
-        // Call the service to record the login event
-        loginRecordsServiceImpl.recordLogin(username, ipAddress);
+        // The login is recorded once per token, later requests only refresh the session heartbeat
+        loginActivityService.recordActivity(userPrincipal, ipAddress);
 
         // Continue with the default authentication success behavior (e.g., returning the JWT token)
         // Note: Your main auth controller logic will handle the JWT response. This is for the audit side effect.
@@ -0,0 +1,130 @@
+package com.groupe.gestion_.de_.notes.security.Jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Verifies bearer tokens once and remembers the result.
+ * The HMAC key and the parser are built a single time at startup, and already verified
+ * tokens are kept in a bounded LRU cache (keyed by their signature) until they expire,
+ * so repeated requests with the same token skip the HMAC check and the JSON parsing.
+ */
+@Component
+public class JwtTokenVerifier {
+    private static final Logger logger = LoggerFactory.getLogger(JwtTokenVerifier.class);
+
+    private final Key signingKey;
+    private final JwtParser jwtParser;
+    private final Map<String, VerifiedToken> verifiedTokens;
+
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Timer verifyTimer;
+
+    public JwtTokenVerifier(@Value("${gestion_.de_.notes.app.jwtSecret}") String jwtSecret,
+                            @Value("${gestion_.de_.notes.app.jwtCacheSize:10000}") int cacheSize,
+                            MeterRegistry meterRegistry) {
+        this.signingKey = Keys.hmacShaKeyFor(Base64.getDecoder().decode(jwtSecret));
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.verifiedTokens = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > cacheSize;
+            }
+        });
+
+        this.cacheHits = Counter.builder("jwt.verify.cache")
+                .tag("result", "hit")
+                .description("Bearer tokens served from the verified-token cache")
+                .register(meterRegistry);
+        this.cacheMisses = Counter.builder("jwt.verify.cache")
+                .tag("result", "miss")
+                .description("Bearer tokens that needed a full signature check")
+                .register(meterRegistry);
+        this.verifyTimer = Timer.builder("jwt.verify.latency")
+                .description("Time spent checking the signature and parsing the claims of a token")
+                .register(meterRegistry);
+        meterRegistry.gauge("jwt.verify.cache.size", verifiedTokens, Map::size);
+    }
+
+    public Key getSigningKey() {
+        return signingKey;
+    }
+
+    /**
+     * Checks the token signature and expiration, parsing it at most once.
+     *
+     * @param token The compact JWT string.
+     * @return The verified claims, or empty if the token is invalid or expired.
+     */
+    public Optional<Claims> verify(String token) {
+        if (token == null || token.isBlank()) {
+            logger.error("JWT claims string is empty");
+            return Optional.empty();
+        }
+
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        VerifiedToken cached = verifiedTokens.get(signature);
+        if (cached != null) {
+            if (cached.expiresAtMillis() <= System.currentTimeMillis()) {
+                verifiedTokens.remove(signature);
+                logger.error("JWT token is expired: {}", cached.claims().getExpiration());
+                return Optional.empty();
+            }
+            // Same signature but different header/payload means a forged token: never trust the cached claims for it
+            if (MessageDigest.isEqual(cached.token(), token.getBytes(StandardCharsets.UTF_8))) {
+                cacheHits.increment();
+                return Optional.of(cached.claims());
+            }
+        }
+
+        cacheMisses.increment();
+        Optional<Claims> claims = verifyTimer.record(() -> parse(token));
+        claims.filter(c -> c.getExpiration() != null)
+                .ifPresent(c -> verifiedTokens.put(signature,
+                        new VerifiedToken(token.getBytes(StandardCharsets.UTF_8), c, c.getExpiration().getTime())));
+        return claims;
+    }
+
+    private Optional<Claims> parse(String token) {
+        try {
+            return Optional.of(jwtParser.parseClaimsJws(token).getBody());
+        } catch (MalformedJwtException e) {
+            logger.error("Invalid JWT token: {}", e.getMessage());
+        } catch (ExpiredJwtException e) {
+            logger.error("JWT token is expired: {}", e.getMessage());
+        } catch (UnsupportedJwtException e) {
+            logger.error("JWT token is unsupported: {}", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            logger.error("JWT claims string is empty: {}", e.getMessage());
+        } catch (JwtException e) {
+            logger.error("JWT signature check failed: {}", e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    private record VerifiedToken(byte[] token, Claims claims, long expiresAtMillis) {
+    }
+}
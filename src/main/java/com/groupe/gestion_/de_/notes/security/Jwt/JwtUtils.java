@@ -1,64 +1,100 @@
 package com.groupe.gestion_.de_.notes.security.Jwt;
 
+import com.groupe.gestion_.de_.notes.model.Role;
+import com.groupe.gestion_.de_.notes.security.SecurityUserService.UserPrincipal;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
-import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
-    @Value("${gestion_.de_.notes.app.jwtSecret}") // Secret key from application.properties
-    private String jwtSecret;
+    // Claim names embedded at signin so the filter can rebuild the principal without a DB lookup
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_STUDENT_ID_NUM = "sid";
+    public static final String CLAIM_TEACHER_ID_NUM = "tid";
 
     @Value("${gestion_.de_.notes.app.jwtExpirationMs}") // Expiration time from application.properties
     private int jwtExpirationMs;
 
-    public String generateJwtToken(Authentication authentication) {
-        org.springframework.security.core.userdetails.User userPrincipal =
-                (org.springframework.security.core.userdetails.User) authentication.getPrincipal();
+    private final JwtTokenVerifier jwtTokenVerifier;
 
-        return Jwts.builder()
-                .setSubject((userPrincipal.getUsername()))
+    public JwtUtils(JwtTokenVerifier jwtTokenVerifier) {
+        this.jwtTokenVerifier = jwtTokenVerifier;
+    }
+
+    public String generateJwtToken(UserPrincipal userPrincipal) {
+        JwtBuilder builder = Jwts.builder()
+                .setId(userPrincipal.getTokenId())
+                .setSubject(userPrincipal.getUsername())
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_ROLE, userPrincipal.getRole().name())
                 .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
-                .compact();
+                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs));
+
+        if (userPrincipal.getStudentIdNum() != null) {
+            builder.claim(CLAIM_STUDENT_ID_NUM, userPrincipal.getStudentIdNum());
+        }
+        if (userPrincipal.getTeacherIdNum() != null) {
+            builder.claim(CLAIM_TEACHER_ID_NUM, userPrincipal.getTeacherIdNum());
+        }
+
+        return builder.signWith(key(), SignatureAlgorithm.HS256).compact();
     }
 
     private Key key() {
-
-        byte[] keyBytes = Base64.getDecoder().decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return jwtTokenVerifier.getSigningKey();
     }
 
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        return jwtTokenVerifier.verify(token)
+                .map(Claims::getSubject)
+                .orElseThrow(() -> new JwtException("Invalid JWT token"));
     }
 
-    public boolean validateJwtToken(String authToken) {
-        try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parse(authToken);
-            return true;
-        } catch (MalformedJwtException e) {
-            logger.error("Invalid JWT token: {}", e.getMessage());
-        } catch (ExpiredJwtException e) {
-            logger.error("JWT token is expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            logger.error("JWT token is unsupported: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            logger.error("JWT claims string is empty: {}", e.getMessage());
+    /**
+     * Validates the token and returns its claims in a single parse.
+     *
+     * @param token The compact JWT string.
+     * @return The verified claims, or empty if the token is invalid or expired.
+     */
+    public Optional<Claims> verifyJwtToken(String token) {
+        return jwtTokenVerifier.verify(token);
+    }
+
+    /**
+     * Rebuilds the authenticated principal from verified claims.
+     *
+     * @param claims The claims of an already validated token.
+     * @return The principal, or null if the token predates the identity claims.
+     */
+    public UserPrincipal getPrincipalFromClaims(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            return null;
         }
-        return false;
+
+        return UserPrincipal.builder()
+                .id(userId.longValue())
+                .username(claims.getSubject())
+                .role(Role.valueOf(role))
+                .studentIdNum(claims.get(CLAIM_STUDENT_ID_NUM, String.class))
+                .teacherIdNum(claims.get(CLAIM_TEACHER_ID_NUM, String.class))
+                .tokenId(claims.getId())
+                .tokenExpiresAt(claims.getExpiration() != null ? claims.getExpiration().toInstant() : null)
+                .build();
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return jwtTokenVerifier.verify(authToken).isPresent();
     }
 }
@@ -0,0 +1,65 @@
+package com.groupe.gestion_.de_.notes.security.SecurityUserService;
+
+import com.groupe.gestion_.de_.notes.model.Role;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated principal built straight from the signed JWT claims.
+ * It carries everything the authorization layer needs (user id, role and the
+ * student/teacher business ids) so the filter chain never has to reload the user.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class UserPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final Role role;
+    private final String studentIdNum; // null unless role == STUDENT
+    private final String teacherIdNum; // null unless role == TEACHER
+    private final String tokenId; // JWT "jti", identifies one signin session
+    private final Instant tokenExpiresAt;
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    /**
+     * Token based principals never hold the password hash.
+     */
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
@@ -0,0 +1,77 @@
+package com.groupe.gestion_.de_.notes.security.Utils;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import com.groupe.gestion_.de_.notes.model.Student;
+import com.groupe.gestion_.de_.notes.model.Teacher;
+import com.groupe.gestion_.de_.notes.model.User;
+import com.groupe.gestion_.de_.notes.repository.UserRepository;
+import com.groupe.gestion_.de_.notes.security.SecurityUserService.UserPrincipal;
+
+/**
+ * The authenticated user of the current HTTP request, resolved once and shared by
+ * ObjectLevelSecurity and the services.
+ * Tokens carrying the identity claims already hold a UserPrincipal, so nothing is loaded;
+ * older tokens cost a single findByUsername per request.
+ */
+@Component
+@RequestScope
+public class CurrentUserContext {
+
+    private final UserRepository userRepository;
+
+    private boolean resolved;
+    private UserPrincipal principal;
+
+    public CurrentUserContext(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * @return the authenticated principal, or null for anonymous requests and unknown users.
+     */
+    public UserPrincipal getPrincipal() {
+        if (!resolved) {
+            principal = resolve();
+            resolved = true;
+        }
+        return principal;
+    }
+
+    public Long getUserId() {
+        UserPrincipal current = getPrincipal();
+        return current != null ? current.getId() : null;
+    }
+
+    public String getUsername() {
+        UserPrincipal current = getPrincipal();
+        return current != null ? current.getUsername() : null;
+    }
+
+    private UserPrincipal resolve() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getName())) {
+            return null;
+        }
+        if (authentication.getPrincipal() instanceof UserPrincipal userPrincipal) {
+            return userPrincipal;
+        }
+
+        return userRepository.findByUsername(authentication.getName())
+                .map(this::toPrincipal)
+                .orElse(null);
+    }
+
+    private UserPrincipal toPrincipal(User user) {
+        return UserPrincipal.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .role(user.getRole())
+                .studentIdNum(user instanceof Student student ? student.getStudentIdNum() : null)
+                .teacherIdNum(user instanceof Teacher teacher ? teacher.getTeacherIdNum() : null)
+                .build();
+    }
+}
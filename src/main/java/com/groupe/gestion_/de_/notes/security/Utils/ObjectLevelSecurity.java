@@ -1,73 +1,40 @@
 package com.groupe.gestion_.de_.notes.security.Utils;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
-
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
-import com.groupe.gestion_.de_.notes.model.ClassSubject;
-import com.groupe.gestion_.de_.notes.model.Enrollment;
-import com.groupe.gestion_.de_.notes.model.Grade;
-import com.groupe.gestion_.de_.notes.model.Student;
-import com.groupe.gestion_.de_.notes.model.Teacher;
-import com.groupe.gestion_.de_.notes.model.TeacherClass;
-import com.groupe.gestion_.de_.notes.model.User;
-import com.groupe.gestion_.de_.notes.repository.ClassRepository;
-import com.groupe.gestion_.de_.notes.repository.ClassSubjectRepository;
 import com.groupe.gestion_.de_.notes.repository.EnrollmentRepository;
 import com.groupe.gestion_.de_.notes.repository.GradeRepository;
-import com.groupe.gestion_.de_.notes.repository.StudentRepository;
-import com.groupe.gestion_.de_.notes.repository.SubjectRepository;
 import com.groupe.gestion_.de_.notes.repository.TeacherClassRepository;
-import com.groupe.gestion_.de_.notes.repository.TeacherRepository;
-import com.groupe.gestion_.de_.notes.repository.UserRepository;
+import com.groupe.gestion_.de_.notes.security.SecurityUserService.UserPrincipal;
 
 import lombok.RequiredArgsConstructor;
 
+/**
+ * Ownership and assignment checks used in @PreAuthorize expressions.
+ * Each check is answered by a single exists query against the database, so it always sees the
+ * assignments committed by any instance.
+ */
 @Service("objectLevelSecurity")
 @RequiredArgsConstructor
 public class ObjectLevelSecurity {
 
-    private final StudentRepository studentRepository;
-    private final TeacherRepository teacherRepository;
-    private final UserRepository userRepository;
     private final GradeRepository gradeRepository;
-    private final SubjectRepository subjectRepository;
     private final TeacherClassRepository teacherClassRepository;
-    private final ClassSubjectRepository classSubjectRepository;
     private final EnrollmentRepository enrollmentRepository;
-    private final ClassRepository classRepository;
+    private final CurrentUserContext currentUserContext;
 
     /**
      * Helper to get the authenticated user's ID.
      */
     public Long getCurrentAuthenticatedUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-
-        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getName())) {
-            return null;
-        }
-
-        String currentUsername = authentication.getName();
-        Optional<User> currentUserOptional = userRepository.findByUsername(currentUsername);
-        return currentUserOptional.map(User::getId).orElse(null);
+        return currentUserContext.getUserId();
     }
 
     /**
      * Helper to get the authenticated user's username
      */
     public String getCurrentAuthenticatedUsername() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return null;
-        }
-        return authentication.getName();
+        return currentUserContext.getUsername();
     }
 
     // ==================== STUDENT OWNERSHIP METHODS ====================
@@ -76,18 +43,9 @@ public class ObjectLevelSecurity {
      * Checks if the authenticated user is the owner of the given studentIdNum
      */
     public boolean isStudentOwner(String studentIdNum) {
-        Long authenticatedUserId = getCurrentAuthenticatedUserId();
-        if (authenticatedUserId == null) {
-            return false;
-        }
-
-        Optional<Student> studentOptional = studentRepository.findByStudentIdNum(studentIdNum);
-        if (studentOptional.isPresent()) {
-            Student student = studentOptional.get();
-            return Objects.equals(authenticatedUserId, student.getId());
-        }
-
-        return false;
+        UserPrincipal principal = currentUserContext.getPrincipal();
+        return principal != null && principal.getStudentIdNum() != null
+                && principal.getStudentIdNum().equals(studentIdNum);
     }
 
     /**
@@ -97,8 +55,7 @@ public class ObjectLevelSecurity {
         Long authenticatedUserId = getCurrentAuthenticatedUserId();
         if (authenticatedUserId == null) return false;
 
-        Optional<Grade> grade = gradeRepository.findById(gradeId);
-        return grade.map(g -> Objects.equals(g.getStudent().getId(), authenticatedUserId)).orElse(false);
+        return gradeRepository.existsByIdAndStudent_Id(gradeId, authenticatedUserId);
     }
 
     /**
@@ -108,14 +65,7 @@ public class ObjectLevelSecurity {
         Long authenticatedUserId = getCurrentAuthenticatedUserId();
         if (authenticatedUserId == null) return false;
 
-        Optional<Student> studentOptional = studentRepository.findById(authenticatedUserId);
-        if (studentOptional.isEmpty()) return false;
-
-        String studentIdNum = studentOptional.get().getStudentIdNum();
-        List<Enrollment> enrollments = enrollmentRepository.findByStudentStudentIdNum(studentIdNum);
-        
-        return enrollments.stream()
-                .anyMatch(e -> Objects.equals(e.getClassEntity().getId(), classId));
+        return enrollmentRepository.existsByStudent_IdAndClassEntity_Id(authenticatedUserId, classId);
     }
 
     /**
@@ -125,54 +75,30 @@ public class ObjectLevelSecurity {
         Long authenticatedUserId = getCurrentAuthenticatedUserId();
         if (authenticatedUserId == null) return false;
 
-        Optional<Enrollment> enrollmentOptional = enrollmentRepository.findById(enrollmentId);
-        if (enrollmentOptional.isEmpty()) return false;
-
-        return Objects.equals(authenticatedUserId, enrollmentOptional.get().getStudent().getId());
+        return enrollmentRepository.existsByIdAndStudent_Id(enrollmentId, authenticatedUserId);
     }
 
     // ==================== TEACHER OWNERSHIP & ASSIGNMENT METHODS ====================
 
     /**
      * Checks if the authenticated user is the owner of the given teacherIdNum.
-     * This method gets the authenticated user by username, looks up their Teacher record,
-     * and compares their teacherIdNum with the one provided.
+     * The teacherIdNum of the authenticated user is resolved once per request by CurrentUserContext.
      */
     public boolean isTeacherOwner(String teacherIdNum) {
-        String currentUsername = getCurrentAuthenticatedUsername();
-        if (currentUsername == null) return false;
-
-        // Get the authenticated user
-        Optional<User> userOptional = userRepository.findByUsername(currentUsername);
-        if (userOptional.isEmpty()) return false;
-
-        User user = userOptional.get();
-        
-        // Check if this user is a Teacher
-        Optional<Teacher> authenticatedTeacherOptional = teacherRepository.findById(user.getId());
-        if (authenticatedTeacherOptional.isEmpty()) return false;
-
-        Teacher authenticatedTeacher = authenticatedTeacherOptional.get();
-        
-        // Compare the authenticated teacher's teacherIdNum with the provided one
-        return Objects.equals(authenticatedTeacher.getTeacherIdNum(), teacherIdNum);
+        UserPrincipal principal = currentUserContext.getPrincipal();
+        return principal != null && principal.getTeacherIdNum() != null
+                && principal.getTeacherIdNum().equals(teacherIdNum);
     }
 
     /**
-     * Checks if the authenticated teacher is assigned to a specific class
+     * Checks if the authenticated teacher is assigned to a specific class.
+     * Teachers share their primary key with their user row, so the user id is the teacher id.
      */
     public boolean isTeacherAssignedToClass(Long classId) {
         Long authenticatedUserId = getCurrentAuthenticatedUserId();
         if (authenticatedUserId == null) return false;
 
-        Optional<Teacher> teacherOptional = teacherRepository.findById(authenticatedUserId);
-        if (teacherOptional.isEmpty()) return false;
-
-        String teacherIdNum = teacherOptional.get().getTeacherIdNum();
-        List<TeacherClass> teacherClasses = teacherClassRepository.findByTeacher_TeacherIdNum(teacherIdNum);
-        
-        return teacherClasses.stream()
-                .anyMatch(tc -> Objects.equals(tc.getClassEntity().getId(), classId));
+        return teacherClassRepository.existsByTeacher_IdAndClassEntity_Id(authenticatedUserId, classId);
     }
 
     /**
@@ -182,25 +108,7 @@ public class ObjectLevelSecurity {
         Long authenticatedUserId = getCurrentAuthenticatedUserId();
         if (authenticatedUserId == null) return false;
 
-        Optional<Teacher> teacherOptional = teacherRepository.findById(authenticatedUserId);
-        if (teacherOptional.isEmpty()) return false;
-
-        String teacherIdNum = teacherOptional.get().getTeacherIdNum();
-        
-        List<TeacherClass> teacherClasses = teacherClassRepository.findByTeacher_TeacherIdNum(teacherIdNum);
-        if (teacherClasses.isEmpty()) {
-            return false;
-        }
-
-        Set<String> subjectsTaughtByTeacher = new HashSet<>();
-        for (TeacherClass tc : teacherClasses) {
-            List<ClassSubject> classSubjects = classSubjectRepository.findByClassEntity_Id(tc.getClassEntity().getId());
-            subjectsTaughtByTeacher.addAll(classSubjects.stream()
-                    .map(cs -> cs.getSubject().getSubjectCode())
-                    .collect(Collectors.toSet()));
-        }
-
-        return subjectsTaughtByTeacher.contains(subjectCode);
+        return teacherClassRepository.existsTeacherAssignmentToSubject(authenticatedUserId, subjectCode);
     }
 
     /**
@@ -210,69 +118,29 @@ public class ObjectLevelSecurity {
         Long authenticatedUserId = getCurrentAuthenticatedUserId();
         if (authenticatedUserId == null) return false;
 
-        Optional<Teacher> teacherOptional = teacherRepository.findById(authenticatedUserId);
-        if (teacherOptional.isEmpty()) return false;
-
-        String teacherIdNum = teacherOptional.get().getTeacherIdNum();
-
-        Set<Long> teacherClassIds = teacherClassRepository.findByTeacher_TeacherIdNum(teacherIdNum).stream()
-                .map(tc -> tc.getClassEntity().getId())
-                .collect(Collectors.toSet());
-
-        if (teacherClassIds.isEmpty()) {
-            return false;
-        }
-
-        Set<Long> studentClassIds = enrollmentRepository.findByStudentStudentIdNum(studentIdNum).stream()
-                .map(e -> e.getClassEntity().getId())
-                .collect(Collectors.toSet());
-
-        if (studentClassIds.isEmpty()) {
-            return false;
-        }
-
-        return teacherClassIds.stream().anyMatch(studentClassIds::contains);
+        return teacherClassRepository.existsTeacherAssignmentToStudent(authenticatedUserId, studentIdNum);
     }
 
     /**
      * Checks if the authenticated teacher is assigned to a specific grade
+     * (recorded it, teaches its subject, or teaches the graded student) in a single query.
      */
     public boolean isTeacherAssignedToGrade(Long gradeId) {
         Long authenticatedUserId = getCurrentAuthenticatedUserId();
         if (authenticatedUserId == null) return false;
 
-        Optional<Grade> gradeOptional = gradeRepository.findById(gradeId);
-        if (gradeOptional.isEmpty()) {
-            return false;
-        }
-        Grade grade = gradeOptional.get();
-
-        if (grade.getRecordedByTeacher() != null && Objects.equals(grade.getRecordedByTeacher().getId(), authenticatedUserId)) {
-            return true;
-        }
-
-        if (isTeacherAssignedToSubject(grade.getSubject().getSubjectCode())) {
-            return true;
-        }
-
-        if (isTeacherAssignedToStudent(grade.getStudent().getStudentIdNum())) {
-            return true;
-        }
-
-        return false;
+        return gradeRepository.existsTeacherAssignmentToGrade(authenticatedUserId, gradeId);
     }
 
     /**
      * Checks if the authenticated teacher is assigned to a specific enrollment
+     * (teaches its class, or teaches its subject in another class) in a single query.
      */
     public boolean isTeacherAssignedToEnrollment(Long enrollmentId) {
-        Optional<Enrollment> enrollmentOptional = enrollmentRepository.findById(enrollmentId);
-        if (enrollmentOptional.isEmpty()) return false;
+        Long authenticatedUserId = getCurrentAuthenticatedUserId();
+        if (authenticatedUserId == null) return false;
 
-        Enrollment enrollment = enrollmentOptional.get();
-        
-        return isTeacherAssignedToClass(enrollment.getClassEntity().getId()) ||
-               isTeacherAssignedToSubject(enrollment.getSubject().getSubjectCode());
+        return enrollmentRepository.existsTeacherAssignmentToEnrollment(authenticatedUserId, enrollmentId);
     }
 
     /**
@@ -5,15 +5,23 @@ import com.groupe.gestion_.de_.notes.exceptions.ResourceNotFoundException;
 import com.groupe.gestion_.de_.notes.model.Class;
 import com.groupe.gestion_.de_.notes.dto.ClassRequest;
 import com.groupe.gestion_.de_.notes.dto.ClassResponse;
+import com.groupe.gestion_.de_.notes.dto.GradebookResponse;
 import com.groupe.gestion_.de_.notes.repository.ClassRepository;
+import com.groupe.gestion_.de_.notes.repository.ClassSubjectRepository;
 import com.groupe.gestion_.de_.notes.repository.EnrollmentRepository;
+import com.groupe.gestion_.de_.notes.repository.StudentSubjectGradeStatsRepository;
 import com.groupe.gestion_.de_.notes.repository.TeacherClassRepository;
 import com.groupe.gestion_.de_.notes.services.ServiceInterface.ClassService;
+import com.groupe.gestion_.de_.notes.events.AuthorizationDataChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -24,6 +32,9 @@ public class ClassServiceImpl implements ClassService {
     private final ClassRepository classRepository;
     private final TeacherClassRepository teacherClassRepository;
     private final EnrollmentRepository enrollmentRepository;
+    private final ClassSubjectRepository classSubjectRepository;
+    private final StudentSubjectGradeStatsRepository gradeStatsRepository; // Per student/subject sums and counts for the gradebook
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -94,6 +105,80 @@ public class ClassServiceImpl implements ClassService {
         }
         // TODO: Consider adding logic to check for dependent entities (e.g., enrolled students, assigned teachers)
         classRepository.deleteById(id);
+        eventPublisher.publishEvent(new AuthorizationDataChangedEvent("class " + id + " deleted"));
+    }
+
+    /**
+     * Builds the students x subjects grid of a class from three queries: the enrolled students,
+     * the subjects taught in the class and the per student/subject grade aggregates.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public GradebookResponse getGradebook(Long classId) {
+        List<Object[]> studentRows = enrollmentRepository.findEnrolledStudentsByClassId(classId);
+        if (studentRows.isEmpty() && !classRepository.existsById(classId)) {
+            throw new ResourceNotFoundException("Class not found with ID: " + classId);
+        }
+        List<Object[]> subjectRows = classSubjectRepository.findSubjectColumnsByClassId(classId);
+
+        List<GradebookResponse.Student> students = new ArrayList<>(studentRows.size());
+        Map<Long, Integer> rowByStudentId = new HashMap<>();
+        for (Object[] row : studentRows) {
+            rowByStudentId.put((Long) row[0], students.size());
+            students.add(new GradebookResponse.Student((String) row[1], (String) row[2], (String) row[3]));
+        }
+        List<GradebookResponse.Subject> subjects = new ArrayList<>(subjectRows.size());
+        Map<String, Integer> columnBySubjectCode = new HashMap<>();
+        for (Object[] row : subjectRows) {
+            columnBySubjectCode.put((String) row[0], subjects.size());
+            subjects.add(new GradebookResponse.Subject((String) row[0], (String) row[1], (Double) row[2]));
+        }
+
+        double[][] sums = new double[students.size()][subjects.size()];
+        long[][] counts = new long[students.size()][subjects.size()];
+        for (Object[] row : gradeStatsRepository.findRankingRowsByClassId(classId)) {
+            Integer i = rowByStudentId.get((Long) row[0]);
+            Integer j = columnBySubjectCode.get((String) row[1]);
+            if (i != null && j != null) { // grades in subjects not taught in this class are left out
+                sums[i][j] = ((Number) row[2]).doubleValue();
+                counts[i][j] = ((Number) row[3]).longValue();
+            }
+        }
+
+        Double[][] averages = new Double[students.size()][subjects.size()];
+        Double[] studentAverages = new Double[students.size()];
+        double[] columnSums = new double[subjects.size()];
+        long[] columnCounts = new long[subjects.size()];
+        for (int i = 0; i < students.size(); i++) {
+            double weightedSum = 0;
+            double weight = 0;
+            for (int j = 0; j < subjects.size(); j++) {
+                if (counts[i][j] == 0) {
+                    continue;
+                }
+                averages[i][j] = sums[i][j] / counts[i][j];
+                double coefficient = subjects.get(j).getCoefficient() == null ? 0.0 : subjects.get(j).getCoefficient();
+                weightedSum += sums[i][j] * coefficient;
+                weight += counts[i][j] * coefficient;
+                columnSums[j] += sums[i][j];
+                columnCounts[j] += counts[i][j];
+            }
+            studentAverages[i] = weight > 0 ? weightedSum / weight : null;
+        }
+        Double[] subjectAverages = new Double[subjects.size()];
+        for (int j = 0; j < subjects.size(); j++) {
+            subjectAverages[j] = columnCounts[j] > 0 ? columnSums[j] / columnCounts[j] : null;
+        }
+
+        return GradebookResponse.builder()
+                .classId(classId)
+                .students(students)
+                .subjects(subjects)
+                .averages(averages)
+                .counts(counts)
+                .studentAverages(studentAverages)
+                .subjectAverages(subjectAverages)
+                .build();
     }
 
     private ClassResponse mapToResponse(Class mapclass) {
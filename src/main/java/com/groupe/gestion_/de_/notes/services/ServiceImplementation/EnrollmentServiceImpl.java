@@ -16,7 +16,9 @@ import com.groupe.gestion_.de_.notes.repository.StudentRepository;
 import com.groupe.gestion_.de_.notes.repository.ClassRepository;
 import com.groupe.gestion_.de_.notes.repository.SubjectRepository;
 import com.groupe.gestion_.de_.notes.services.ServiceInterface.EnrollmentService;
+import com.groupe.gestion_.de_.notes.events.EnrollmentChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,6 +34,7 @@ public class EnrollmentServiceImpl implements EnrollmentService {
     private final StudentRepository studentRepository;
     private final ClassRepository classRepository;
     private final SubjectRepository subjectRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -50,6 +53,7 @@ public class EnrollmentServiceImpl implements EnrollmentService {
 
         Enrollment enrollment = new Enrollment(null, student, classEntity, subject);
         Enrollment savedEnrollment = enrollmentRepository.save(enrollment);
+        eventPublisher.publishEvent(new EnrollmentChangedEvent(student.getId(), student.getStudentIdNum(), classEntity.getId(), true));
         return mapToResponse(savedEnrollment);
     }
 
@@ -106,10 +110,11 @@ public class EnrollmentServiceImpl implements EnrollmentService {
     @Override
     @Transactional
     public void deleteEnrollment(Long id) {
-        if (!enrollmentRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Enrollment not found with ID: " + id);
-        }
-        enrollmentRepository.deleteById(id);
+        Enrollment enrollment = enrollmentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Enrollment not found with ID: " + id));
+        enrollmentRepository.delete(enrollment);
+        eventPublisher.publishEvent(new EnrollmentChangedEvent(enrollment.getStudent().getId(),
+                enrollment.getStudent().getStudentIdNum(), enrollment.getClassEntity().getId(), false));
     }
 
     private EnrollmentResponse mapToResponse(Enrollment enrollment) {
@@ -0,0 +1,110 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import com.groupe.gestion_.de_.notes.dto.GradeDistributionResponse;
+
+/**
+ * One-pass accumulator for grade values on the 0-20 scale.
+ * Mean and variance use Welford's update; quantiles come from a fixed 0.01-resolution count sketch,
+ * which is exact for grades with at most two decimals and mergeable by adding the counts.
+ * Not thread-safe: fill one per thread and {@link #merge} them.
+ */
+public final class GradeDistributionAccumulator {
+
+    static final int MAX_GRADE = 20;
+    private static final int STEPS_PER_POINT = 100;
+    private static final int BUCKETS = MAX_GRADE * STEPS_PER_POINT + 1;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private double mean;
+    private double m2; // Sum of squared deviations from the mean
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        counts[bucketOf(value)]++;
+    }
+
+    /**
+     * Folds another accumulator into this one (Chan et al. parallel variance).
+     */
+    public GradeDistributionAccumulator merge(GradeDistributionAccumulator other) {
+        if (other.count == 0) {
+            return this;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        m2 += other.m2 + delta * delta * count * other.count / total;
+        mean += delta * other.count / total;
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @param p Quantile in [0, 1], interpolated linearly between the two closest ranks.
+     * @return The quantile, or null when nothing was added.
+     */
+    public Double quantile(double p) {
+        if (count == 0) {
+            return null;
+        }
+        double rank = p * (count - 1);
+        long lower = (long) Math.floor(rank);
+        double low = valueAtRank(lower);
+        double high = lower + 1 < count ? valueAtRank(lower + 1) : low;
+        return low + (rank - lower) * (high - low);
+    }
+
+    public GradeDistributionResponse toResponse(String scope, String scopeKey) {
+        long[] histogram = new long[MAX_GRADE + 1];
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram[i / STEPS_PER_POINT] += counts[i];
+        }
+        boolean empty = count == 0;
+        return GradeDistributionResponse.builder()
+                .scope(scope)
+                .scopeKey(scopeKey)
+                .count(count)
+                .mean(empty ? null : mean)
+                .stddev(empty ? null : Math.sqrt(m2 / count))
+                .min(empty ? null : min)
+                .max(empty ? null : max)
+                .q1(quantile(0.25))
+                .median(quantile(0.5))
+                .q3(quantile(0.75))
+                .histogram(histogram)
+                .build();
+    }
+
+    // k-th smallest value (0-based), read back from the sketch
+    private double valueAtRank(long k) {
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen > k) {
+                return (double) i / STEPS_PER_POINT;
+            }
+        }
+        return (double) MAX_GRADE;
+    }
+
+    private static int bucketOf(double value) {
+        long bucket = Math.round(value * STEPS_PER_POINT);
+        return (int) Math.max(0, Math.min(BUCKETS - 1, bucket));
+    }
+}
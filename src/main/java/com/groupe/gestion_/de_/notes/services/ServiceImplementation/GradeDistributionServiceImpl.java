@@ -0,0 +1,149 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import com.groupe.gestion_.de_.notes.dto.GradeDistributionResponse;
+import com.groupe.gestion_.de_.notes.events.AuthorizationDataChangedEvent;
+import com.groupe.gestion_.de_.notes.events.EnrollmentChangedEvent;
+import com.groupe.gestion_.de_.notes.events.GradeChangedEvent;
+import com.groupe.gestion_.de_.notes.events.GradeOutboxBatchEvent;
+import com.groupe.gestion_.de_.notes.exceptions.ResourceNotFoundException;
+import com.groupe.gestion_.de_.notes.model.Subject;
+import com.groupe.gestion_.de_.notes.repository.ClassRepository;
+import com.groupe.gestion_.de_.notes.repository.EnrollmentRepository;
+import com.groupe.gestion_.de_.notes.repository.GradeRepository;
+import com.groupe.gestion_.de_.notes.repository.SubjectRepository;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.GradeDistributionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Count, mean, standard deviation, quartiles and 0-20 histogram of the grades of a subject or of the
+ * students enrolled in a class, computed in one streaming pass over the bare grade values.
+ * Results are cached until a grade of that scope is written; a computation that overlaps any
+ * invalidation is returned but not kept.
+ */
+@Service
+@RequiredArgsConstructor
+public class GradeDistributionServiceImpl implements GradeDistributionService {
+
+    private static final String SUBJECT_SCOPE = "SUBJECT";
+    private static final String CLASS_SCOPE = "CLASS";
+
+    private final GradeRepository gradeRepository;
+    private final SubjectRepository subjectRepository;
+    private final ClassRepository classRepository;
+    private final EnrollmentRepository enrollmentRepository;
+
+    private final Map<String, SubjectEntry> subjectCache = new ConcurrentHashMap<>(); // by subject code
+    private final Map<Long, ClassEntry> classCache = new ConcurrentHashMap<>(); // by class id
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private record SubjectEntry(Long subjectId, GradeDistributionResponse distribution) {
+    }
+
+    private record ClassEntry(Set<Long> studentIds, GradeDistributionResponse distribution) {
+    }
+
+    /**
+     * @param subjectCode The code of the subject.
+     * @return The distribution of every grade recorded in that subject.
+     * @throws ResourceNotFoundException if subject not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public GradeDistributionResponse getSubjectDistribution(String subjectCode) {
+        SubjectEntry cached = subjectCache.get(subjectCode);
+        if (cached != null) {
+            return cached.distribution();
+        }
+
+        long generation = invalidations.get();
+        Subject subject = subjectRepository.findBySubjectCode(subjectCode)
+                .orElseThrow(() -> new ResourceNotFoundException("Subject not found with ID: " + subjectCode));
+        GradeDistributionResponse distribution;
+        try (Stream<Double> values = gradeRepository.streamValuesBySubjectId(subject.getId())) {
+            distribution = accumulate(values).toResponse(SUBJECT_SCOPE, subjectCode);
+        }
+
+        SubjectEntry entry = new SubjectEntry(subject.getId(), distribution);
+        subjectCache.put(subjectCode, entry);
+        if (invalidations.get() != generation) {
+            subjectCache.remove(subjectCode, entry); // a write overlapped the computation
+        }
+        return distribution;
+    }
+
+    /**
+     * @param classId The ID of the class.
+     * @return The distribution of every grade of the students enrolled in that class.
+     * @throws ResourceNotFoundException if class not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public GradeDistributionResponse getClassDistribution(Long classId) {
+        ClassEntry cached = classCache.get(classId);
+        if (cached != null) {
+            return cached.distribution();
+        }
+
+        long generation = invalidations.get();
+        if (!classRepository.existsById(classId)) {
+            throw new ResourceNotFoundException("Class not found with ID: " + classId);
+        }
+        Set<Long> studentIds = new HashSet<>(enrollmentRepository.findStudentIdsByClassId(classId));
+        GradeDistributionResponse distribution;
+        try (Stream<Double> values = gradeRepository.streamValuesByClassId(classId)) {
+            distribution = accumulate(values).toResponse(CLASS_SCOPE, String.valueOf(classId));
+        }
+
+        ClassEntry entry = new ClassEntry(Collections.unmodifiableSet(studentIds), distribution);
+        classCache.put(classId, entry);
+        if (invalidations.get() != generation) {
+            classCache.remove(classId, entry); // a write overlapped the computation
+        }
+        return distribution;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGradeChanged(GradeChangedEvent event) {
+        invalidations.incrementAndGet();
+        subjectCache.values().removeIf(entry -> event.subjectIds().contains(entry.subjectId()));
+        classCache.values().removeIf(entry -> !Collections.disjoint(entry.studentIds(), event.studentIds()));
+    }
+
+    // Changes committed by the other instances too, a poll interval later
+    @EventListener
+    public void onOutboxBatch(GradeOutboxBatchEvent event) {
+        onGradeChanged(new GradeChangedEvent(event.studentIds(), event.subjectIds()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        invalidations.incrementAndGet();
+        classCache.remove(event.classId());
+    }
+
+    // Renamed or deleted subjects, deleted classes and users
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorizationDataChanged(AuthorizationDataChangedEvent event) {
+        invalidations.incrementAndGet();
+        subjectCache.clear();
+        classCache.clear();
+    }
+
+    private static GradeDistributionAccumulator accumulate(Stream<Double> values) {
+        GradeDistributionAccumulator accumulator = new GradeDistributionAccumulator();
+        values.forEach(accumulator::add);
+        return accumulator;
+    }
+}
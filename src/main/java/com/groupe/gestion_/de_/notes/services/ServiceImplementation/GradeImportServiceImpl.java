@@ -0,0 +1,550 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import com.groupe.gestion_.de_.notes.dto.GradeImportResponse;
+import com.groupe.gestion_.de_.notes.exceptions.BadRequestException;
+import com.groupe.gestion_.de_.notes.model.Grade;
+import com.groupe.gestion_.de_.notes.model.GradeImportReport;
+import com.groupe.gestion_.de_.notes.model.Role;
+import com.groupe.gestion_.de_.notes.repository.GradeImportReportRepository;
+import com.groupe.gestion_.de_.notes.repository.StudentRepository;
+import com.groupe.gestion_.de_.notes.repository.SubjectRepository;
+import com.groupe.gestion_.de_.notes.repository.TeacherClassRepository;
+import com.groupe.gestion_.de_.notes.repository.TeacherRepository;
+import com.groupe.gestion_.de_.notes.security.SecurityUserService.UserPrincipal;
+import com.groupe.gestion_.de_.notes.security.Utils.CurrentUserContext;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.GradeImportService;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Imports grades from spreadsheets without loading them whole:
+ * .xlsx files are read with POI's SAX (event) API and .csv files line by line.
+ * Rows are gathered in chunks; each chunk is validated in parallel against maps of every
+ * student, subject and teacher preloaded once, then its valid rows are committed in their own
+ * transaction through GradeWriter. Rejected rows end up in a CSV report stored in grade_import_reports for download
+ * from any instance, until it expires.
+ */
+@Service
+public class GradeImportServiceImpl implements GradeImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GradeImportServiceImpl.class);
+
+    private static final String COL_STUDENT = "studentidnum";
+    private static final String COL_SUBJECT = "subjectcode";
+    private static final String COL_VALUE = "value";
+    private static final String COL_DATE = "date";
+    private static final String COL_COMMENT = "comment";
+    private static final String COL_RECORDED_BY = "recordedby";
+    private static final List<String> REQUIRED_COLUMNS = List.of(COL_STUDENT, COL_SUBJECT, COL_VALUE, COL_DATE);
+
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+
+    private final StudentRepository studentRepository;
+    private final SubjectRepository subjectRepository;
+    private final TeacherRepository teacherRepository;
+    private final TeacherClassRepository teacherClassRepository;
+    private final GradeImportReportRepository reportRepository;
+    private final GradeWriter gradeWriter;
+    private final CurrentUserContext currentUserContext;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportRows;
+    private final long reportTtlHours;
+
+    public GradeImportServiceImpl(StudentRepository studentRepository,
+                                  SubjectRepository subjectRepository,
+                                  TeacherRepository teacherRepository,
+                                  TeacherClassRepository teacherClassRepository,
+                                  GradeImportReportRepository reportRepository,
+                                  GradeWriter gradeWriter,
+                                  CurrentUserContext currentUserContext,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.grades.import.chunk-size:500}") int chunkSize,
+                                  @Value("${app.grades.import.max-report-rows:10000}") int maxReportRows,
+                                  @Value("${app.grades.import.report-ttl-hours:24}") long reportTtlHours) {
+        this.studentRepository = studentRepository;
+        this.subjectRepository = subjectRepository;
+        this.teacherRepository = teacherRepository;
+        this.teacherClassRepository = teacherClassRepository;
+        this.reportRepository = reportRepository;
+        this.gradeWriter = gradeWriter;
+        this.currentUserContext = currentUserContext;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxReportRows = maxReportRows;
+        this.reportTtlHours = reportTtlHours;
+    }
+
+    @Override
+    public GradeImportResponse importGrades(MultipartFile file) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new BadRequestException("The uploaded file is empty.");
+        }
+        String filename = file.getOriginalFilename() == null ? "" : file.getOriginalFilename().toLowerCase(Locale.ROOT);
+
+        ImportRun run = new ImportRun(loadLookups());
+        if (filename.endsWith(".xlsx")) {
+            readXlsx(file, run);
+        } else if (filename.endsWith(".csv")) {
+            readCsv(file, run);
+        } else {
+            throw new BadRequestException("Only .xlsx and .csv files can be imported.");
+        }
+        run.finish();
+
+        String reportId = null;
+        if (run.rejected > 0) {
+            reportId = UUID.randomUUID().toString();
+            UserPrincipal principal = currentUserContext.getPrincipal();
+            reportRepository.save(GradeImportReport.builder()
+                    .id(reportId)
+                    .ownerId(principal != null ? principal.getId() : null)
+                    .csv(run.report.toString().getBytes(StandardCharsets.UTF_8))
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        logger.info("Grade import of '{}': {} rows, {} imported, {} rejected",
+                file.getOriginalFilename(), run.totalRows, run.imported, run.rejected);
+
+        return GradeImportResponse.builder()
+                .totalRows(run.totalRows)
+                .importedCount(run.imported)
+                .rejectedCount(run.rejected)
+                .errorReportId(reportId)
+                .build();
+    }
+
+    @Override
+    public Optional<byte[]> getErrorReport(String reportId) {
+        // Expired reports are no longer served, even before the purge deletes them
+        Optional<GradeImportReport> report = reportRepository.findByIdAndCreatedAtAfter(reportId,
+                LocalDateTime.now().minusHours(reportTtlHours));
+        if (report.isEmpty()) {
+            return Optional.empty();
+        }
+        // Reports are only visible to whoever ran the import (and to admins)
+        UserPrincipal principal = currentUserContext.getPrincipal();
+        boolean allowed = principal != null
+                && (principal.getRole() == Role.ADMIN || principal.getId().equals(report.get().getOwnerId()));
+        return allowed ? Optional.of(report.get().getCsv()) : Optional.empty();
+    }
+
+    @Scheduled(cron = "${app.grades.import.report-purge-cron:0 45 3 * * *}")
+    public void purgeExpiredReports() {
+        Integer deleted = transactionTemplate.execute(status ->
+                reportRepository.deleteOlderThan(LocalDateTime.now().minusHours(reportTtlHours)));
+        logger.info("Purged {} grade import reports older than {} hours", deleted, reportTtlHours);
+    }
+
+    // --- Readers ---
+
+    private void readXlsx(MultipartFile file, ImportRun run) throws IOException {
+        // OPCPackage reads a file with random access instead of inflating the whole upload in memory
+        Path tempFile = Files.createTempFile("grade-import-", ".xlsx");
+        try {
+            file.transferTo(tempFile);
+            try (OPCPackage pkg = OPCPackage.open(tempFile.toFile(), PackageAccess.READ)) {
+                XSSFReader reader = new XSSFReader(pkg);
+                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+                StylesTable styles = reader.getStylesTable();
+                Iterator<InputStream> sheets = reader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    throw new BadRequestException("The workbook does not contain any sheet.");
+                }
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = SAXHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings, new SheetRowCollector(run), isoDateFormatter(), false));
+                    parser.parse(new InputSource(sheet));
+                }
+            } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+                throw new BadRequestException("The Excel file could not be read: " + e.getMessage());
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private void readCsv(MultipartFile file, ImportRun run) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int rowNumber = 0;
+            Character delimiter = null;
+            StringBuilder pending = null; // a record whose quoted field spans several lines
+            while ((line = reader.readLine()) != null) {
+                rowNumber++;
+                if (rowNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1); // UTF-8 BOM written by Excel
+                }
+                if (pending != null) {
+                    line = pending.append('\n').append(line).toString();
+                    pending = null;
+                }
+                if (delimiter == null) {
+                    // Excel writes ';' separated files in French locales
+                    delimiter = line.chars().filter(c -> c == ';').count() > line.chars().filter(c -> c == ',').count() ? ';' : ',';
+                }
+                List<String> cells = parseCsvLine(line, delimiter);
+                if (cells == null) {
+                    pending = new StringBuilder(line);
+                    continue;
+                }
+                run.accept(rowNumber, cells);
+            }
+        }
+    }
+
+    /**
+     * Splits one CSV record, honouring double quotes.
+     * @return The cells, or null if the record ends inside a quoted field (it continues on the next line).
+     */
+    private static List<String> parseCsvLine(String line, char delimiter) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    /**
+     * Date-formatted cells are rendered as ISO dates whatever their display format.
+     */
+    private static DataFormatter isoDateFormatter() {
+        DataFormatter formatter = new DataFormatter(Locale.ROOT);
+        for (String excelFormat : List.of("m/d/yy", "d/m/yy", "mm/dd/yyyy", "dd/mm/yyyy", "d/m/yyyy", "yyyy-mm-dd", "d-mmm-yy", "dd-mmm-yyyy")) {
+            formatter.addFormat(excelFormat, new SimpleDateFormat("yyyy-MM-dd", Locale.ROOT));
+        }
+        return formatter;
+    }
+
+    // --- Validation and commit ---
+
+    private Lookups loadLookups() {
+        Set<String> allowedSubjectCodes = null;
+        UserPrincipal principal = currentUserContext.getPrincipal();
+        if (principal != null && principal.getRole() == Role.TEACHER) {
+            allowedSubjectCodes = new HashSet<>(teacherClassRepository.findAssignedSubjectCodesByTeacherId(principal.getId()));
+        }
+        return new Lookups(
+                toIdMap(studentRepository.findAllStudentIdNumsAndIds()),
+                toIdMap(subjectRepository.findAllSubjectCodesAndIds()),
+                toIdMap(teacherRepository.findAllTeacherIdNumsAndIds()),
+                allowedSubjectCodes);
+    }
+
+    private static Map<String, Long> toIdMap(List<Object[]> rows) {
+        Map<String, Long> ids = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            ids.put((String) row[0], (Long) row[1]);
+        }
+        return ids;
+    }
+
+    private static ValidatedRow validate(ImportRow row, Lookups lookups) {
+        Long studentId = lookups.studentIds().get(row.studentIdNum());
+        if (studentId == null) {
+            return ValidatedRow.rejected(row, "Student not found with IDNum: " + row.studentIdNum());
+        }
+        Long subjectId = lookups.subjectIds().get(row.subjectCode());
+        if (subjectId == null) {
+            return ValidatedRow.rejected(row, "Subject not found with ID: " + row.subjectCode());
+        }
+        if (lookups.allowedSubjectCodes() != null && !lookups.allowedSubjectCodes().contains(row.subjectCode())) {
+            return ValidatedRow.rejected(row, "Teacher is not assigned to subject: " + row.subjectCode());
+        }
+        Long teacherId = null;
+        if (row.recordedBy() != null) {
+            teacherId = lookups.teacherIds().get(row.recordedBy());
+            if (teacherId == null) {
+                return ValidatedRow.rejected(row, "Teacher not found with ID: " + row.recordedBy());
+            }
+        }
+
+        double value;
+        try {
+            value = Double.parseDouble(row.value() == null ? "" : row.value().replace(',', '.'));
+        } catch (NumberFormatException e) {
+            return ValidatedRow.rejected(row, "Grade value is not a number: " + row.value());
+        }
+        if (!Double.isFinite(value)) {
+            // "NaN" parses and fails every comparison, so it would slip through the range check
+            return ValidatedRow.rejected(row, "Grade value must be a finite number: " + row.value());
+        }
+        if (value < 0 || value > 20) {
+            return ValidatedRow.rejected(row, "Grade value must be between 0 and 20.");
+        }
+
+        LocalDate date = parseDate(row.date());
+        if (date == null) {
+            return ValidatedRow.rejected(row, "Grade date must be formatted yyyy-MM-dd or dd/MM/yyyy: " + row.date());
+        }
+        if (date.isAfter(LocalDate.now())) {
+            return ValidatedRow.rejected(row, "Grade date cannot be in the future.");
+        }
+        if (row.comment() != null && row.comment().length() > 500) {
+            return ValidatedRow.rejected(row, "Comment cannot exceed 500 characters.");
+        }
+        return new ValidatedRow(row, studentId, subjectId, teacherId, value, date, null);
+    }
+
+    private static LocalDate parseDate(String text) {
+        if (text == null) {
+            return null;
+        }
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(text, format);
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        return null;
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    /**
+     * State of one import: header mapping, the chunk being gathered, counters and the error report.
+     */
+    private final class ImportRun {
+        private final Lookups lookups;
+        private final List<ImportRow> chunk = new ArrayList<>();
+        private final StringBuilder report = new StringBuilder("row,studentIdNum,subjectCode,value,date,error\n");
+        private Map<String, Integer> columns;
+        private int totalRows;
+        private int imported;
+        private int rejected;
+
+        ImportRun(Lookups lookups) {
+            this.lookups = lookups;
+        }
+
+        void accept(int rowNumber, List<String> cells) {
+            if (cells.stream().allMatch(cell -> cell == null || cell.isBlank())) {
+                return; // blank line
+            }
+            if (columns == null) {
+                readHeader(cells);
+                return;
+            }
+            totalRows++;
+            chunk.add(new ImportRow(rowNumber,
+                    cell(cells, COL_STUDENT), cell(cells, COL_SUBJECT), cell(cells, COL_VALUE),
+                    cell(cells, COL_DATE), cell(cells, COL_COMMENT), cell(cells, COL_RECORDED_BY)));
+            if (chunk.size() >= chunkSize) {
+                flushChunk();
+            }
+        }
+
+        void finish() {
+            if (columns == null) {
+                throw new BadRequestException("The file does not contain a header row.");
+            }
+            flushChunk();
+        }
+
+        private void readHeader(List<String> cells) {
+            Map<String, Integer> header = new HashMap<>();
+            for (int i = 0; i < cells.size(); i++) {
+                if (cells.get(i) != null) {
+                    header.put(cells.get(i).trim().toLowerCase(Locale.ROOT), i);
+                }
+            }
+            List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !header.containsKey(column)).toList();
+            if (!missing.isEmpty()) {
+                throw new BadRequestException("Missing column(s) in header: " + missing
+                        + ". Expected studentIdNum, subjectCode, value, date and optionally comment, recordedBy.");
+            }
+            columns = header;
+        }
+
+        private String cell(List<String> cells, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= cells.size() || cells.get(index) == null) {
+                return null;
+            }
+            String value = cells.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        /**
+         * Validates the gathered rows in parallel, then commits the valid ones in one transaction.
+         */
+        private void flushChunk() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<ValidatedRow> validated = chunk.parallelStream()
+                    .map(row -> validate(row, lookups))
+                    .toList();
+            chunk.clear();
+
+            List<ValidatedRow> valid = validated.stream().filter(row -> row.error() == null).toList();
+            validated.stream().filter(row -> row.error() != null).forEach(row -> reject(row.row(), row.error()));
+            if (valid.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> gradeWriter.persistGrades(valid.stream()
+                        .map(row -> Grade.builder()
+                                .value(row.value())
+                                .date(row.date())
+                                .comment(row.row().comment())
+                                .student(studentRepository.getReferenceById(row.studentId()))
+                                .subject(subjectRepository.getReferenceById(row.subjectId()))
+                                .recordedByTeacher(row.teacherId() != null ? teacherRepository.getReferenceById(row.teacherId()) : null)
+                                .build())
+                        .toList()));
+                imported += valid.size();
+            } catch (RuntimeException e) {
+                logger.warn("Grade import chunk of {} rows could not be saved: {}", valid.size(), e.getMessage());
+                valid.forEach(row -> reject(row.row(), "Could not be saved: " + e.getMessage()));
+            }
+        }
+
+        private void reject(ImportRow row, String error) {
+            rejected++;
+            if (rejected <= maxReportRows) {
+                report.append(row.rowNumber()).append(',')
+                        .append(csvField(row.studentIdNum())).append(',')
+                        .append(csvField(row.subjectCode())).append(',')
+                        .append(csvField(row.value())).append(',')
+                        .append(csvField(row.date())).append(',')
+                        .append(csvField(error)).append('\n');
+            } else if (rejected == maxReportRows + 1) {
+                report.append(",,,,,Report truncated after ").append(maxReportRows).append(" rejected rows\n");
+            }
+        }
+    }
+
+    /**
+     * Turns SAX sheet events into rows of cell texts; empty cells are not reported by POI, hence the padding.
+     */
+    private static final class SheetRowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final ImportRun run;
+        private final List<String> cells = new ArrayList<>();
+        private int currentColumn = -1;
+
+        SheetRowCollector(ImportRun run) {
+            this.run = run;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+            currentColumn = -1;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            run.accept(rowNum + 1, cells); // 1-based, as displayed by Excel
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference == null ? currentColumn + 1 : new CellReference(cellReference).getCol();
+            while (cells.size() < column) {
+                cells.add(null);
+            }
+            cells.add(formattedValue);
+            currentColumn = column;
+        }
+
+        @Override
+        public void headerFooter(String text, boolean isHeader, String tagName) {
+            // not used
+        }
+    }
+
+    private record Lookups(Map<String, Long> studentIds, Map<String, Long> subjectIds,
+                           Map<String, Long> teacherIds, Set<String> allowedSubjectCodes) {
+    }
+
+    private record ImportRow(int rowNumber, String studentIdNum, String subjectCode, String value,
+                             String date, String comment, String recordedBy) {
+    }
+
+    private record ValidatedRow(ImportRow row, Long studentId, Long subjectId, Long teacherId,
+                                double value, LocalDate date, String error) {
+        static ValidatedRow rejected(ImportRow row, String error) {
+            return new ValidatedRow(row, null, null, null, 0, null, error);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import com.groupe.gestion_.de_.notes.events.GradeOutboxBatchEvent;
+import com.groupe.gestion_.de_.notes.model.GradeOutboxEvent;
+import com.groupe.gestion_.de_.notes.repository.GradeOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads the grade_outbox table after its last seen id and publishes the new rows to the in-process
+ * subscribers as one GradeOutboxBatchEvent per run.
+ * An id skipped over belongs to a transaction still in flight or rolled back. Writers take their transaction id
+ * before the event id (GradeOutboxServiceImpl), so the skipped id's transaction is below the snapshot xmax read
+ * when the gap is noticed: the id is re-read on every run until it shows up, and only given up once the snapshot
+ * xmin has passed that xmax, i.e. once its transaction has ended without committing it. A slow commit is
+ * delivered late, never lost, however long it takes.
+ * Starts from the current end of the table, the subscribers holding in-memory state only: after the identity's
+ * last value rather than the highest row, so an emptied table (everything purged) is not read as a run of gaps,
+ * and only once the transactions that were running at startup have ended.
+ */
+@Component
+public class GradeOutboxPoller {
+
+    private static final Logger logger = LoggerFactory.getLogger(GradeOutboxPoller.class);
+    private static final int MAX_TRACKED_GAPS = 10_000;
+
+    private final GradeOutboxRepository outboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int retentionDays;
+
+    private volatile long cursor = -1; // highest id read so far, -1 until started
+    private final Map<Long, Long> gaps = new ConcurrentHashMap<>(); // missing id -> snapshot xmax when noticed
+    private long startId = -1; // cursor to start from once the snapshot xmin reaches startXmax
+    private long startXmax;
+    private long holeXmax; // non-zero while the cursor waits on a hole too large to track id by id
+
+    public GradeOutboxPoller(GradeOutboxRepository outboxRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.grades.outbox.batch-size:500}") int batchSize,
+                             @Value("${app.grades.outbox.retention-days:30}") int retentionDays) {
+        this.outboxRepository = outboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retentionDays = retentionDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        // In this order: every id up to startId was handed out to a transaction below startXmax
+        startId = Math.max(outboxRepository.findMaxId(), outboxRepository.findLastAllocatedId());
+        startXmax = outboxRepository.findSnapshotXmax();
+        poll();
+    }
+
+    @Scheduled(fixedDelayString = "${app.grades.outbox.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        if (cursor < 0) {
+            if (startId < 0 || outboxRepository.findSnapshotXmin() < startXmax) {
+                return; // a transaction running at startup may still commit an id below startId
+            }
+            cursor = startId;
+            logger.info("Grade outbox poller starting after event {}", cursor);
+        }
+        List<GradeOutboxEvent> events = new ArrayList<>();
+
+        // Read before the rows: a transaction below it has ended, so its row is visible from here on or never
+        long xmin = gaps.isEmpty() && holeXmax == 0 ? 0 : outboxRepository.findSnapshotXmin();
+        if (!gaps.isEmpty()) {
+            for (GradeOutboxEvent late : outboxRepository.findByIdIn(new ArrayList<>(gaps.keySet()))) {
+                gaps.remove(late.getId());
+                events.add(late);
+            }
+            gaps.values().removeIf(noticedXmax -> noticedXmax <= xmin); // rolled back
+        }
+        boolean holeResolved = holeXmax != 0 && holeXmax <= xmin;
+        if (holeResolved) {
+            holeXmax = 0;
+        }
+
+        List<GradeOutboxEvent> fresh = outboxRepository.findRange(cursor, Long.MAX_VALUE, PageRequest.of(0, batchSize));
+        long noticedXmax = 0; // read after the rows, see the class comment
+        for (GradeOutboxEvent event : fresh) {
+            long missing = event.getId() - cursor - 1;
+            if (missing > 0 && !holeResolved) {
+                if (noticedXmax == 0) {
+                    noticedXmax = outboxRepository.findSnapshotXmax();
+                }
+                if (gaps.size() + missing > MAX_TRACKED_GAPS) {
+                    // Too many ids to wait for one by one: hold the cursor until their transactions have all ended
+                    if (holeXmax == 0) {
+                        holeXmax = noticedXmax;
+                        logger.warn("Grade outbox: {} pending ids, not reading past {} until they resolve",
+                                gaps.size() + missing, cursor);
+                    }
+                    break;
+                }
+                for (long id = cursor + 1; id < event.getId(); id++) {
+                    gaps.putIfAbsent(id, noticedXmax);
+                }
+            }
+            holeResolved = false; // only the hole right after the held cursor was waited for
+            cursor = event.getId();
+            events.add(event);
+        }
+
+        if (!events.isEmpty()) {
+            try {
+                eventPublisher.publishEvent(new GradeOutboxBatchEvent(Collections.unmodifiableList(events)));
+            } catch (RuntimeException e) {
+                logger.error("A grade outbox subscriber failed on {} events", events.size(), e);
+            }
+        }
+    }
+
+    /**
+     * @return The highest id below which every event is readable or will never commit:
+     * pull consumers must not move past an id that may still commit. 0 until the poller has started,
+     * which holds every consumer where it is.
+     */
+    public long getSafeWatermark() {
+        long current = cursor;
+        if (current < 0) {
+            return 0;
+        }
+        OptionalLong lowestGap = gaps.keySet().stream().mapToLong(Long::longValue).min();
+        return lowestGap.isPresent() ? Math.min(current, lowestGap.getAsLong() - 1) : current;
+    }
+
+    @Scheduled(cron = "${app.grades.outbox.purge-cron:0 30 3 * * *}")
+    public void purge() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays)));
+        logger.info("Purged {} grade outbox events older than {} days", deleted, retentionDays);
+    }
+}
@@ -0,0 +1,141 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import com.groupe.gestion_.de_.notes.dto.GradeChangeEventResponse;
+import com.groupe.gestion_.de_.notes.dto.GradeEventPageResponse;
+import com.groupe.gestion_.de_.notes.exceptions.BadRequestException;
+import com.groupe.gestion_.de_.notes.model.Grade;
+import com.groupe.gestion_.de_.notes.model.GradeChangeType;
+import com.groupe.gestion_.de_.notes.model.GradeOutboxEvent;
+import com.groupe.gestion_.de_.notes.repository.GradeOutboxRepository;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.GradeOutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Appends grade changes to the grade_outbox table in the caller's transaction, so an event exists
+ * if and only if its change committed, and serves them to pull consumers.
+ */
+@Service
+@RequiredArgsConstructor
+public class GradeOutboxServiceImpl implements GradeOutboxService {
+
+    private final GradeOutboxRepository outboxRepository;
+    private final GradeOutboxPoller outboxPoller;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Value("${app.grades.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.grades.page.max-size:500}")
+    private int maxPageSize;
+
+    /**
+     * Appends one CREATED event per grade with a single JDBC batch.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(List<Grade> grades) {
+        if (grades.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batch = grades.stream()
+                .map(grade -> parameters(GradeChangeType.CREATED, grade, null, null, grade.getValue(), now))
+                .toArray(SqlParameterSource[]::new);
+        assignTransactionId();
+        namedParameterJdbcTemplate.batchUpdate(GradeOutboxRepository.INSERT_SQL, batch);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUpdated(Grade grade, Long previousStudentId, Long previousSubjectId) {
+        Long movedFromStudent = Objects.equals(previousStudentId, grade.getStudent().getId()) ? null : previousStudentId;
+        Long movedFromSubject = Objects.equals(previousSubjectId, grade.getSubject().getId()) ? null : previousSubjectId;
+        assignTransactionId();
+        namedParameterJdbcTemplate.update(GradeOutboxRepository.INSERT_SQL, parameters(GradeChangeType.UPDATED, grade,
+                movedFromStudent, movedFromSubject, grade.getValue(), LocalDateTime.now()));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Grade grade) {
+        assignTransactionId();
+        namedParameterJdbcTemplate.update(GradeOutboxRepository.INSERT_SQL,
+                parameters(GradeChangeType.DELETED, grade, null, null, null, LocalDateTime.now()));
+    }
+
+    /**
+     * Returns the events after the given id, up to the poller's safe watermark: an event whose
+     * transaction is still committing is never skipped by a consumer resuming from nextSince.
+     *
+     * @param since The last event id already processed by the consumer (0 to start from the oldest kept event).
+     * @param limit Optional maximum number of events, capped like the paginated listings.
+     * @return The events, oldest first, and the id to resume from.
+     * @throws BadRequestException if since is negative.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public GradeEventPageResponse getEventsSince(long since, Integer limit) {
+        if (since < 0) {
+            throw new BadRequestException("since must not be negative.");
+        }
+        int size = limit == null || limit < 1 ? defaultPageSize : Math.min(limit, maxPageSize);
+        long watermark = outboxPoller.getSafeWatermark();
+
+        List<GradeOutboxEvent> rows = outboxRepository.findRange(since, watermark, PageRequest.of(0, size + 1));
+        boolean hasMore = rows.size() > size;
+        List<GradeOutboxEvent> page = hasMore ? rows.subList(0, size) : rows;
+        long nextSince = hasMore ? page.get(page.size() - 1).getId() : Math.max(since, watermark);
+
+        return GradeEventPageResponse.builder()
+                .events(page.stream().map(GradeOutboxServiceImpl::mapToResponse).collect(Collectors.toList()))
+                .nextSince(nextSince)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private void assignTransactionId() {
+        // The grade write itself may still sit unflushed in the persistence context
+        namedParameterJdbcTemplate.query(GradeOutboxRepository.ASSIGN_TRANSACTION_ID_SQL, resultSet -> null);
+    }
+
+    private static SqlParameterSource parameters(GradeChangeType type, Grade grade, Long previousStudentId,
+                                                 Long previousSubjectId, Double value, LocalDateTime occurredAt) {
+        return new MapSqlParameterSource()
+                .addValue("type", type.name())
+                .addValue("gradeId", grade.getId())
+                .addValue("studentId", grade.getStudent().getId())
+                .addValue("subjectId", grade.getSubject().getId())
+                .addValue("previousStudentId", previousStudentId, Types.BIGINT)
+                .addValue("previousSubjectId", previousSubjectId, Types.BIGINT)
+                .addValue("value", value, Types.DOUBLE)
+                .addValue("occurredAt", occurredAt);
+    }
+
+    private static GradeChangeEventResponse mapToResponse(GradeOutboxEvent event) {
+        return GradeChangeEventResponse.builder()
+                .eventId(event.getId())
+                .type(event.getType().name())
+                .gradeId(event.getGradeId())
+                .studentId(event.getStudentId())
+                .subjectId(event.getSubjectId())
+                .previousStudentId(event.getPreviousStudentId())
+                .previousSubjectId(event.getPreviousSubjectId())
+                .value(event.getValue())
+                .occurredAt(event.getOccurredAt())
+                .build();
+    }
+}
@@ -0,0 +1,137 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import com.groupe.gestion_.de_.notes.dto.GradeStatsReport;
+import com.groupe.gestion_.de_.notes.model.Grade;
+import com.groupe.gestion_.de_.notes.repository.GradeRepository;
+import com.groupe.gestion_.de_.notes.repository.StudentSubjectGradeStatsRepository;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.GradeStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Maintains the student_subject_grade_stats table.
+ * The write methods join the caller's transaction, so a grade and its aggregates commit (or roll back) together.
+ * Both lock the pairs they touch until that commit, so an upsert and a recompute of the same pair never interleave.
+ */
+@Service
+public class GradeStatsServiceImpl implements GradeStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GradeStatsServiceImpl.class);
+
+    private final StudentSubjectGradeStatsRepository statsRepository;
+    private final GradeRepository gradeRepository;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean backfillOnStartup;
+
+    public GradeStatsServiceImpl(StudentSubjectGradeStatsRepository statsRepository,
+                                 GradeRepository gradeRepository,
+                                 NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.grades.stats.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.statsRepository = statsRepository;
+        this.gradeRepository = gradeRepository;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    /**
+     * Folds newly saved grades into their (student, subject) rows with a single JDBC batch of upserts.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onGradesAdded(List<Grade> grades) {
+        if (grades.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = grades.stream()
+                .map(grade -> new MapSqlParameterSource()
+                        .addValue("studentId", grade.getStudent().getId())
+                        .addValue("subjectId", grade.getSubject().getId())
+                        .addValue("value", grade.getValue())
+                        .addValue("date", grade.getDate()))
+                .toArray(SqlParameterSource[]::new);
+        lockPairs(grades.stream().map(grade -> grade.getStudent().getId()).toArray(Long[]::new),
+                grades.stream().map(grade -> grade.getSubject().getId()).toArray(Long[]::new));
+        namedParameterJdbcTemplate.batchUpdate(StudentSubjectGradeStatsRepository.ADD_GRADE_SQL, batch);
+    }
+
+    /**
+     * Recomputes one (student, subject) row from its grades, removing it when no grade is left.
+     * Used after updates and deletes, where min/max cannot be maintained incrementally.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refreshPair(Long studentId, Long subjectId) {
+        // Read committed: the recompute below then sees every grade whose upsert went before
+        lockPairs(new Long[]{studentId}, new Long[]{subjectId});
+        if (statsRepository.recomputePair(studentId, subjectId) == 0) {
+            statsRepository.deletePairIfEmpty(studentId, subjectId);
+        }
+    }
+
+    private void lockPairs(Long[] studentIds, Long[] subjectIds) {
+        // pg_advisory_xact_lock returns void: the rows are read and ignored
+        namedParameterJdbcTemplate.query(StudentSubjectGradeStatsRepository.LOCK_TABLE_SHARED_SQL, resultSet -> null);
+        namedParameterJdbcTemplate.query(StudentSubjectGradeStatsRepository.LOCK_PAIRS_SQL,
+                new MapSqlParameterSource().addValue("studentIds", studentIds).addValue("subjectIds", subjectIds),
+                resultSet -> null);
+    }
+
+    /**
+     * Rebuilds the whole table from the grades table. Used for the initial backfill and to repair drift.
+     */
+    @Override
+    @Transactional
+    public GradeStatsReport rebuild() {
+        // Waits for the pair writers in flight and holds the new ones until the table is refilled
+        namedParameterJdbcTemplate.query(StudentSubjectGradeStatsRepository.LOCK_TABLE_SQL, resultSet -> null);
+        statsRepository.deleteAllStats();
+        int rows = statsRepository.insertAllFromGrades();
+        logger.info("Rebuilt grade statistics: {} student/subject pairs", rows);
+        return GradeStatsReport.builder().rebuiltPairs(rows).build();
+    }
+
+    /**
+     * Compares every stored row with the aggregates recomputed from the grades table.
+     * @param repair rebuild the table when at least one pair does not match.
+     */
+    @Override
+    @Transactional
+    public GradeStatsReport checkConsistency(boolean repair) {
+        long inconsistent = statsRepository.countInconsistentPairs();
+        long rebuilt = 0;
+        if (inconsistent > 0) {
+            logger.warn("Grade statistics out of sync for {} student/subject pairs", inconsistent);
+            if (repair) {
+                rebuilt = rebuild().getRebuiltPairs();
+            }
+        }
+        return GradeStatsReport.builder().inconsistentPairs(inconsistent).rebuiltPairs(rebuilt).build();
+    }
+
+    /**
+     * Backfills the table the first time the application starts with existing grades.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (backfillOnStartup && statsRepository.count() == 0 && gradeRepository.count() > 0) {
+            // Called on the bean itself, so the transaction has to be opened explicitly
+            transactionTemplate.executeWithoutResult(status -> rebuild());
+        }
+    }
+}
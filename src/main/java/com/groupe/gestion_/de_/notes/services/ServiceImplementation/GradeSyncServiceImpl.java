@@ -0,0 +1,150 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import com.groupe.gestion_.de_.notes.dto.GradeChangesResponse;
+import com.groupe.gestion_.de_.notes.dto.GradeResponse;
+import com.groupe.gestion_.de_.notes.dto.GradeSyncToken;
+import com.groupe.gestion_.de_.notes.dto.GradeTombstone;
+import com.groupe.gestion_.de_.notes.exceptions.ResourceNotFoundException;
+import com.groupe.gestion_.de_.notes.model.GradeOutboxEvent;
+import com.groupe.gestion_.de_.notes.model.Student;
+import com.groupe.gestion_.de_.notes.model.Subject;
+import com.groupe.gestion_.de_.notes.repository.GradeOutboxRepository;
+import com.groupe.gestion_.de_.notes.repository.GradeRepository;
+import com.groupe.gestion_.de_.notes.repository.StudentRepository;
+import com.groupe.gestion_.de_.notes.repository.SubjectRepository;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.GradeSyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Incremental grade sync for clients holding a copy of a grade list.
+ * The version of a grade is the id of its latest grade_outbox event: the outbox already orders every
+ * creation, update and deletion, is indexed by id and scope, and keeps the deletions as tombstones
+ * until its retention runs out. A client whose token predates the retention is asked to reload.
+ * Tokens stop at GradeOutboxPoller's safe watermark, below any id whose transaction may still commit:
+ * a change committed late is returned by a later sync, never jumped over.
+ */
+@Service
+@RequiredArgsConstructor
+public class GradeSyncServiceImpl implements GradeSyncService {
+
+    private final GradeOutboxRepository outboxRepository;
+    private final GradeOutboxPoller outboxPoller;
+    private final GradeRepository gradeRepository;
+    private final StudentRepository studentRepository;
+    private final SubjectRepository subjectRepository;
+
+    @Value("${app.grades.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.grades.page.max-size:500}")
+    private int maxPageSize;
+
+    @Override
+    @Transactional(readOnly = true)
+    public GradeChangesResponse getChanges(String since, Integer limit) {
+        return sync(since, limit, (from, to, pageable) -> outboxRepository.findRange(from, to, pageable), grade -> true);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public GradeChangesResponse getChangesByStudentIdNum(String studentIdNum, String since, Integer limit) {
+        Long studentId = studentRepository.findByStudentIdNum(studentIdNum)
+                .map(Student::getId)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found with ID: " + studentIdNum));
+        return sync(since, limit,
+                (from, to, pageable) -> outboxRepository.findRangeByStudentId(from, to, studentId, pageable),
+                grade -> studentIdNum.equals(grade.getStudentIdNum()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public GradeChangesResponse getChangesBySubjectCode(String subjectCode, String since, Integer limit) {
+        Long subjectId = subjectRepository.findBySubjectCode(subjectCode)
+                .map(Subject::getId)
+                .orElseThrow(() -> new ResourceNotFoundException("Subject not found with ID: " + subjectCode));
+        return sync(since, limit,
+                (from, to, pageable) -> outboxRepository.findRangeBySubjectId(from, to, subjectId, pageable),
+                grade -> subjectCode.equals(grade.getSubjectCode()));
+    }
+
+    @FunctionalInterface
+    private interface EventRange {
+        List<GradeOutboxEvent> find(long afterId, long upToId, Pageable pageable);
+    }
+
+    /**
+     * Reads the scope's events after the token (up to the poller's safe watermark), keeps the latest
+     * event per grade and answers each grade with its current row, or with a tombstone when it no
+     * longer exists or has left the scope.
+     */
+    private GradeChangesResponse sync(String since, Integer limit, EventRange range, Predicate<GradeResponse> inScope) {
+        GradeSyncToken token = GradeSyncToken.decode(since);
+        long watermark = outboxPoller.getSafeWatermark();
+        if (token == null || isBeyondRetention(token.eventId(), watermark)) {
+            return GradeChangesResponse.builder()
+                    .upserts(List.of())
+                    .deleted(List.of())
+                    .nextToken(new GradeSyncToken(watermark).encode())
+                    .resetRequired(true)
+                    .build();
+        }
+
+        int size = limit == null || limit < 1 ? defaultPageSize : Math.min(limit, maxPageSize);
+        List<GradeOutboxEvent> events = range.find(token.eventId(), watermark, PageRequest.of(0, size + 1));
+        boolean hasMore = events.size() > size;
+        if (hasMore) {
+            events = events.subList(0, size);
+        }
+
+        Map<Long, GradeOutboxEvent> latestByGradeId = new LinkedHashMap<>();
+        for (GradeOutboxEvent event : events) {
+            latestByGradeId.remove(event.getGradeId()); // re-insert so the map follows the last change order
+            latestByGradeId.put(event.getGradeId(), event);
+        }
+        Map<Long, GradeResponse> current = new LinkedHashMap<>();
+        if (!latestByGradeId.isEmpty()) {
+            for (GradeResponse grade : gradeRepository.findResponsesByIdIn(latestByGradeId.keySet())) {
+                current.put(grade.getId(), grade);
+            }
+        }
+
+        List<GradeResponse> upserts = new ArrayList<>();
+        List<GradeTombstone> deleted = new ArrayList<>();
+        latestByGradeId.forEach((gradeId, event) -> {
+            GradeResponse grade = current.get(gradeId);
+            if (grade != null && inScope.test(grade)) {
+                upserts.add(grade);
+            } else {
+                deleted.add(new GradeTombstone(gradeId, event.getOccurredAt()));
+            }
+        });
+
+        long next = hasMore ? events.get(events.size() - 1).getId() : Math.max(token.eventId(), watermark);
+        return GradeChangesResponse.builder()
+                .upserts(upserts)
+                .deleted(deleted)
+                .nextToken(new GradeSyncToken(next).encode())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    // Events after the token may have been purged: the client cannot be brought up to date incrementally
+    private boolean isBeyondRetention(long eventId, long watermark) {
+        if (eventId >= watermark) {
+            return false;
+        }
+        Long oldestKept = outboxRepository.findMinId();
+        return oldestKept == null || eventId < oldestKept - 1;
+    }
+}
@@ -0,0 +1,49 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import com.groupe.gestion_.de_.notes.events.GradeChangedEvent;
+import com.groupe.gestion_.de_.notes.model.Grade;
+import com.groupe.gestion_.de_.notes.repository.GradeRepository;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.GradeOutboxService;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.GradeStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Single write path for new grades, shared by single entry, bulk entry and file imports.
+ * Inserts are batched by Hibernate (grades use a pooled id sequence) and the per student/subject
+ * aggregates and the grade outbox are updated in the same transaction, then a GradeChangedEvent is published.
+ */
+@Component
+@RequiredArgsConstructor
+public class GradeWriter {
+
+    private final GradeRepository gradeRepository;
+    private final GradeStatsService gradeStatsService;
+    private final GradeOutboxService gradeOutboxService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * @param grades The new Grade entities.
+     * @return The saved entities, in the same order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Grade> persistGrades(List<Grade> grades) {
+        if (grades.isEmpty()) {
+            return grades;
+        }
+        List<Grade> saved = gradeRepository.saveAll(grades);
+        gradeRepository.flush(); // send the insert batches now so failures surface here
+        gradeStatsService.onGradesAdded(saved);
+        gradeOutboxService.recordCreated(saved);
+        eventPublisher.publishEvent(new GradeChangedEvent(
+                saved.stream().map(grade -> grade.getStudent().getId()).collect(Collectors.toSet()),
+                saved.stream().map(grade -> grade.getSubject().getId()).collect(Collectors.toSet())));
+        return saved;
+    }
+}
@@ -1,28 +1,57 @@
 package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.groupe.gestion_.de_.notes.dto.GradeBatchResponse;
+import com.groupe.gestion_.de_.notes.dto.GradeBatchRowResult;
+import com.groupe.gestion_.de_.notes.dto.GradeCursor;
+import com.groupe.gestion_.de_.notes.dto.GradeFilter;
+import com.groupe.gestion_.de_.notes.dto.GradePageResponse;
 import com.groupe.gestion_.de_.notes.dto.GradeRequest;
 import com.groupe.gestion_.de_.notes.dto.GradeResponse;
-import com.groupe.gestion_.de_.notes.dto.StudentResponse;
-import com.groupe.gestion_.de_.notes.dto.SubjectResponse;
-import com.groupe.gestion_.de_.notes.dto.TeacherResponse;
+import com.groupe.gestion_.de_.notes.dto.StudentAverageResponse;
+import com.groupe.gestion_.de_.notes.events.GradeChangedEvent;
 import com.groupe.gestion_.de_.notes.exceptions.BadRequestException;
 import com.groupe.gestion_.de_.notes.exceptions.ResourceNotFoundException;
 import com.groupe.gestion_.de_.notes.model.Grade;
+import com.groupe.gestion_.de_.notes.model.Role;
 import com.groupe.gestion_.de_.notes.model.Student;
 import com.groupe.gestion_.de_.notes.model.Subject;
 import com.groupe.gestion_.de_.notes.model.Teacher;
+import com.groupe.gestion_.de_.notes.repository.ClassRepository;
 import com.groupe.gestion_.de_.notes.repository.GradeRepository;
 import com.groupe.gestion_.de_.notes.repository.StudentRepository;
+import com.groupe.gestion_.de_.notes.repository.StudentSubjectGradeStatsRepository;
 import com.groupe.gestion_.de_.notes.repository.SubjectRepository;
+import com.groupe.gestion_.de_.notes.repository.TeacherClassRepository;
 import com.groupe.gestion_.de_.notes.repository.TeacherRepository;
+import com.groupe.gestion_.de_.notes.security.SecurityUserService.UserPrincipal;
+import com.groupe.gestion_.de_.notes.security.Utils.CurrentUserContext;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.GradeOutboxService;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.GradeStatsService;
 import com.groupe.gestion_.de_.notes.services.ServiceInterface.GradesService;
 
 import lombok.RequiredArgsConstructor;
@@ -35,6 +64,24 @@ public class GradesServiceImpl implements GradesService {
     private final StudentRepository studentRepository;
     private final SubjectRepository subjectRepository;
     private final TeacherRepository teacherRepository; // For recordedByTeacher
+    private final ClassRepository classRepository;
+    private final StudentSubjectGradeStatsRepository gradeStatsRepository; // Pre-aggregated grades, read by the averages
+    private final GradeStatsService gradeStatsService;
+    private final GradeWriter gradeWriter; // Single write path for new grades
+    private final GradeOutboxService gradeOutboxService; // Change feed, written in the same transaction
+    private final TeacherClassRepository teacherClassRepository; // For the subjects a teacher may grade
+    private final CurrentUserContext currentUserContext;
+    private final ObjectMapper objectMapper; // Spring's mapper, so dates serialize like in the other endpoints
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.grades.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.grades.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${app.grades.batch.max-size:500}")
+    private int maxBatchSize;
 
     /**
      * Creates a new grade record.
@@ -75,10 +122,81 @@ public class GradesServiceImpl implements GradesService {
                 .recordedByTeacher(recordedByTeacher)
                 .build();
 
-        Grade savedGrade = gradeRepository.save(grade);
+        Grade savedGrade = gradeWriter.persistGrades(List.of(grade)).get(0);
         return mapGradeToResponse(savedGrade);
     }
 
+    /**
+     * Creates many grade records at once, typically a whole class's exam results.
+     * All students, subjects and teachers are resolved with one query per type, every row is validated
+     * in a single pass and the valid rows are inserted through JDBC batching.
+     * Invalid rows are reported and skipped; they do not prevent the valid ones from being saved.
+     * TEACHERs may only record grades in subjects taught in one of their classes.
+     *
+     * @param requests The grades to create.
+     * @return One result per request row, in request order.
+     * @throws BadRequestException if the batch exceeds the configured maximum size.
+     */
+    @Override
+    @Transactional
+    public GradeBatchResponse addGrades(List<GradeRequest> requests) {
+        if (requests.size() > maxBatchSize) {
+            throw new BadRequestException("A batch cannot contain more than " + maxBatchSize + " grades.");
+        }
+
+        // 1. Resolve every referenced entity in set-based queries
+        Map<String, Student> students = studentRepository.findByStudentIdNumIn(collectKeys(requests, GradeRequest::getStudentIdNum))
+                .stream().collect(Collectors.toMap(Student::getStudentIdNum, Function.identity()));
+        Map<String, Subject> subjects = subjectRepository.findBySubjectCodeIn(collectKeys(requests, GradeRequest::getSubjectCode))
+                .stream().collect(Collectors.toMap(Subject::getSubjectCode, Function.identity()));
+        Set<String> teacherIdNums = collectKeys(requests, GradeRequest::getRecordedBy);
+        Map<String, Teacher> teachers = teacherIdNums.isEmpty() ? Map.of()
+                : teacherRepository.findByTeacherIdNumIn(teacherIdNums)
+                .stream().collect(Collectors.toMap(Teacher::getTeacherIdNum, Function.identity()));
+
+        // Teachers are restricted to the subjects of their classes (null means no restriction)
+        Set<String> allowedSubjectCodes = null;
+        UserPrincipal principal = currentUserContext.getPrincipal();
+        if (principal != null && principal.getRole() == Role.TEACHER) {
+            allowedSubjectCodes = new HashSet<>(teacherClassRepository.findAssignedSubjectCodesByTeacherId(principal.getId()));
+        }
+
+        // 2. Validate every row, building the grades of the valid ones
+        GradeBatchRowResult[] results = new GradeBatchRowResult[requests.size()];
+        List<Grade> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            GradeRequest request = requests.get(i);
+            String error = validateBatchRow(request, students, subjects, teachers, allowedSubjectCodes);
+            if (error != null) {
+                results[i] = GradeBatchRowResult.builder().index(i).created(false).error(error).build();
+                continue;
+            }
+            accepted.add(Grade.builder()
+                    .value(request.getValue())
+                    .date(request.getDate())
+                    .comment(request.getComment())
+                    .student(students.get(request.getStudentIdNum()))
+                    .subject(subjects.get(request.getSubjectCode()))
+                    .recordedByTeacher(request.getRecordedBy() != null ? teachers.get(request.getRecordedBy()) : null)
+                    .build());
+            acceptedIndexes.add(i);
+        }
+
+        // 3. Insert the valid rows in JDBC batches
+        List<Grade> saved = gradeWriter.persistGrades(accepted);
+        for (int k = 0; k < saved.size(); k++) {
+            int index = acceptedIndexes.get(k);
+            results[index] = GradeBatchRowResult.builder().index(index).created(true).grade(mapGradeToResponse(saved.get(k))).build();
+        }
+
+        return GradeBatchResponse.builder()
+                .createdCount(saved.size())
+                .rejectedCount(requests.size() - saved.size())
+                .results(Arrays.asList(results))
+                .build();
+    }
+
 
     /**
      * Retrieves a grade by its ID.
@@ -89,8 +207,7 @@ public class GradesServiceImpl implements GradesService {
     @Override
     @Transactional(readOnly = true)
     public Optional<GradeResponse> findGradeById(Long id) {
-        return gradeRepository.findById(id)
-                .map(this::mapGradeToResponse);
+        return gradeRepository.findResponseById(id);
     }
 
     /**
@@ -101,24 +218,48 @@ public class GradesServiceImpl implements GradesService {
     @Override
     @Transactional(readOnly = true)
     public List<GradeResponse> getAllGrades() {
-        return gradeRepository.findAll().stream()
-                .map(this::mapGradeToResponse)
-                .collect(Collectors.toList());
+        return gradeRepository.findAllResponses();
+    }
+
+    /**
+     * Writes every grade to the output as newline-delimited JSON (one GradeResponse per line),
+     * in id order, as rows come back from the database cursor.
+     * Neither the entities nor the full response list are ever materialized.
+     *
+     * @param out The response body; it is flushed but not closed.
+     * @return The number of grades written.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long streamAllGrades(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(GradeResponse.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        BufferedOutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+        long count = 0;
+        try (Stream<GradeResponse> grades = gradeRepository.streamAllAsResponses()) {
+            Iterator<GradeResponse> iterator = grades.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(buffered, iterator.next());
+                buffered.write('\n');
+                if (++count % 1000 == 0) {
+                    buffered.flush(); // hand rows to the client as we go
+                }
+            }
+        }
+        buffered.flush();
+        return count;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<GradeResponse> getGradesByTeacher(String teacherIdNum) {
-        // Find the teacher by teacherIdNum
-        Teacher teacher = teacherRepository.findByTeacherIdNum(teacherIdNum)
-                .orElseThrow(() -> new NoSuchElementException("Teacher not found with ID: " + teacherIdNum));
-        
+        // Validate teacher existence
+        if (!teacherRepository.existsByTeacherIdNum(teacherIdNum)) {
+            throw new ResourceNotFoundException("Teacher not found with ID: " + teacherIdNum);
+        }
+
         // Get all grades recorded by this teacher
-        List<Grade> grades = gradeRepository.findByRecordedByTeacher_TeacherIdNum(teacherIdNum);
-        
-        // Map to response DTOs
-        return grades.stream()
-                .map(this::mapGradeToResponse)
-                .collect(Collectors.toList());
+        return gradeRepository.findResponsesByTeacherIdNum(teacherIdNum);
     }
 
     /**
@@ -131,12 +272,10 @@ public class GradesServiceImpl implements GradesService {
     @Transactional(readOnly = true)
     public List<GradeResponse> findGradesByStudentIdNum(String studentIdNum) {
         // Optional: Validate student existence before fetching grades
-        if (studentRepository.findByStudentIdNum(studentIdNum).isEmpty()) {
+        if (!studentRepository.existsByStudentIdNum(studentIdNum)) {
             throw new ResourceNotFoundException("Student not found with ID: " + studentIdNum);
         }
-        return gradeRepository.findByStudentStudentIdNum(studentIdNum).stream()
-                .map(this::mapGradeToResponse)
-                .collect(Collectors.toList());
+        return gradeRepository.findResponsesByStudentIdNum(studentIdNum);
     }
 
     /**
@@ -149,12 +288,10 @@ public class GradesServiceImpl implements GradesService {
     @Transactional(readOnly = true)
     public List<GradeResponse> findGradesBySubjectCode(String subjectCode) {
         // Optional: Validate subject existence
-        if (!subjectRepository.findBySubjectCode(subjectCode).isEmpty()) {
+        if (!subjectRepository.existsBySubjectCode(subjectCode)) {
             throw new ResourceNotFoundException("Subject not found with ID: " + subjectCode);
         }
-        return gradeRepository.findBySubjectSubjectCode(subjectCode).stream()
-                .map(this::mapGradeToResponse)
-                .collect(Collectors.toList());
+        return gradeRepository.findResponsesBySubjectCode(subjectCode);
     }
 
     /**
@@ -168,15 +305,55 @@ public class GradesServiceImpl implements GradesService {
     @Transactional(readOnly = true)
     public List<GradeResponse> findGradesByStudentIdNumAndSubjectCode(String studentIdNum, String subjectCode) {
         // Validate existence of both student and subject
-        if (!studentRepository.findByStudentIdNum(studentIdNum).isEmpty()) {
+        if (!studentRepository.existsByStudentIdNum(studentIdNum)) {
             throw new ResourceNotFoundException("Student not found with IDNum: " + studentIdNum);
         }
-        if (!subjectRepository.findBySubjectCode(subjectCode).isEmpty()) {
+        if (!subjectRepository.existsBySubjectCode(subjectCode)) {
             throw new ResourceNotFoundException("Subject not found with ID: " + subjectCode);
         }
-        return gradeRepository.findByStudent_StudentIdNumAndSubject_SubjectCode(studentIdNum, subjectCode).stream()
-                .map(this::mapGradeToResponse)
-                .collect(Collectors.toList());
+        return gradeRepository.findResponsesByStudentIdNumAndSubjectCode(studentIdNum, subjectCode);
+    }
+
+    /**
+     * Retrieves one page of grades matching the filter, newest first.
+     * Pages are keyset based: the returned cursor points after the last row, so deep pages cost
+     * the same as the first one and concurrent inserts never shift rows between pages.
+     *
+     * @param filter Optional student/subject/teacher scope and date/value ranges.
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     * @param size The requested page size, capped at the configured maximum.
+     * @return The page and the cursor of the next one (null on the last page).
+     * @throws BadRequestException if the cursor, size or ranges are invalid.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public GradePageResponse findGradesPage(GradeFilter filter, String cursor, Integer size) {
+        int pageSize = size == null ? defaultPageSize : size;
+        if (pageSize < 1) {
+            throw new BadRequestException("Page size must be at least 1.");
+        }
+        pageSize = Math.min(pageSize, maxPageSize);
+        if (filter.getFromDate() != null && filter.getToDate() != null && filter.getFromDate().isAfter(filter.getToDate())) {
+            throw new BadRequestException("Date range start must not be after its end.");
+        }
+        if (filter.getMinValue() != null && filter.getMaxValue() != null && filter.getMinValue() > filter.getMaxValue()) {
+            throw new BadRequestException("Minimum grade value must not be greater than the maximum.");
+        }
+
+        // One extra row tells whether another page exists without a count query
+        List<GradeResponse> rows = gradeRepository.findPage(filter, GradeCursor.decode(cursor), pageSize + 1);
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            GradeResponse last = rows.get(pageSize - 1);
+            nextCursor = new GradeCursor(last.getDate(), last.getId()).encode();
+        }
+
+        return GradePageResponse.builder()
+                .items(rows)
+                .nextCursor(nextCursor)
+                .size(rows.size())
+                .build();
     }
 
     /**
@@ -199,6 +376,10 @@ public class GradesServiceImpl implements GradesService {
             throw new BadRequestException("Grade value must be between 0 and 20.");
         }
 
+        // Remember the (student, subject) pair before it possibly moves, for the aggregates refresh
+        Long previousStudentId = existingGrade.getStudent().getId();
+        Long previousSubjectId = existingGrade.getSubject().getId();
+
         // Update basic fields
         existingGrade.setValue(request.getValue());
         existingGrade.setDate(request.getDate());
@@ -225,6 +406,16 @@ public class GradesServiceImpl implements GradesService {
         }
 
         Grade updatedGrade = gradeRepository.save(existingGrade);
+
+        gradeStatsService.refreshPair(previousStudentId, previousSubjectId);
+        if (!previousStudentId.equals(updatedGrade.getStudent().getId())
+                || !previousSubjectId.equals(updatedGrade.getSubject().getId())) {
+            gradeStatsService.refreshPair(updatedGrade.getStudent().getId(), updatedGrade.getSubject().getId());
+        }
+        gradeOutboxService.recordUpdated(updatedGrade, previousStudentId, previousSubjectId);
+        eventPublisher.publishEvent(new GradeChangedEvent(
+                Stream.of(previousStudentId, updatedGrade.getStudent().getId()).collect(Collectors.toSet()),
+                Stream.of(previousSubjectId, updatedGrade.getSubject().getId()).collect(Collectors.toSet())));
         return mapGradeToResponse(updatedGrade);
     }
 
@@ -237,10 +428,13 @@ public class GradesServiceImpl implements GradesService {
     @Override
     @Transactional
     public void deleteGrade(Long id) {
-        if (!gradeRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Grade not found with ID: " + id);
-        }
-        gradeRepository.deleteById(id);
+        Grade grade = gradeRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Grade not found with ID: " + id));
+        gradeRepository.delete(grade);
+        gradeStatsService.refreshPair(grade.getStudent().getId(), grade.getSubject().getId());
+        gradeOutboxService.recordDeleted(grade);
+        eventPublisher.publishEvent(new GradeChangedEvent(
+                Set.of(grade.getStudent().getId()), Set.of(grade.getSubject().getId())));
     }
 
     /**
@@ -248,53 +442,42 @@ public class GradesServiceImpl implements GradesService {
      *
      * @param studentIdNum The ID of the student.
      * @param subjectCode The ID of the subject.
-     * @return The average grade as a Double, or null if no grades are found.
+     * @return The average grade as a Double, or 0.0 if no grades are found.
      * @throws ResourceNotFoundException if student or subject not found.
      */
     @Override
     @Transactional(readOnly = true)
     public Double calculateStudentAverageGradeForSubject(String studentIdNum, String subjectCode) {
-        List<Grade> grades = getGradesForCalculation(studentIdNum, subjectCode);
-        return grades.stream()
-                .mapToDouble(Grade::getValue)
-                .average()
-                .orElse(0.0); // Return 0.0 if no grades found, or OptionalDouble could be used
+        // Validate student and subject existence
+        if (!studentRepository.existsByStudentIdNum(studentIdNum)) {
+            throw new ResourceNotFoundException("Student not found with ID: " + studentIdNum);
+        }
+        if (!subjectRepository.existsBySubjectCode(subjectCode)) {
+            throw new ResourceNotFoundException("Subject not found with ID: " + subjectCode);
+        }
+
+        Double average = gradeStatsRepository.averageByStudentAndSubject(studentIdNum, subjectCode);
+        return average == null ? 0.0 : average; // Return 0.0 if no grades found
     }
 
     /**
-     * Calculates the overall average grade for a specific student across all subjects.
+     * Calculates the overall average grade for a specific student across all subjects,
+     * each grade being weighted by its subject's coefficient.
      *
      * @param studentIdNum The ID of the student.
-     * @return The overall average grade as a Double, or null if no grades are found.
+     * @return The overall average grade as a Double, or 0.0 if no grades are found.
      * @throws ResourceNotFoundException if student not found.
      */
     @Override
     @Transactional(readOnly = true)
     public Double calculateStudentOverallAverageGrade(String studentIdNum) {
         // Validate student existence
-        if (studentRepository.findByStudentIdNum(studentIdNum).isEmpty()) {
+        if (!studentRepository.existsByStudentIdNum(studentIdNum)) {
             throw new ResourceNotFoundException("Student not found with ID: " + studentIdNum);
         }
 
-        List<Grade> grades = gradeRepository.findByStudentStudentIdNum(studentIdNum);
-        if (grades.isEmpty()) {
-            return 0.0;
-        }
-
-        // Calculate weighted average if subjects have coefficients, otherwise simple average
-        double totalWeightedSum = 0.0;
-        double totalCoefficient = 0.0;
-        for (Grade grade : grades) {
-            // Assuming Subject is eagerly fetched or retrieved
-            // If lazy, you might need grade.getSubject().getCoefficient() which triggers a fetch
-            // Or use a custom query in repository to fetch grades with subject coefficients
-            Subject subject = subjectRepository.findById(grade.getSubject().getId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Subject not found for grade ID: " + grade.getId()));
-            totalWeightedSum += grade.getValue() * subject.getCoefficient();
-            totalCoefficient += subject.getCoefficient();
-        }
-
-        return totalCoefficient == 0 ? 0.0 : totalWeightedSum / totalCoefficient;
+        Double average = gradeStatsRepository.weightedAverageByStudent(studentIdNum);
+        return average == null ? 0.0 : average;
     }
 
 
@@ -302,38 +485,41 @@ public class GradesServiceImpl implements GradesService {
      * Calculates the average grade for a specific subject across all students who have grades for it.
      *
      * @param subjectCode The ID of the subject.
-     * @return The average grade as a Double, or null if no grades are found.
+     * @return The average grade as a Double, or 0.0 if no grades are found.
      * @throws ResourceNotFoundException if subject not found.
      */
     @Override
     @Transactional(readOnly = true)
     public Double calculateSubjectAverageGrade(String subjectCode) {
         // Validate subject existence
-        if (subjectRepository.findBySubjectCode(subjectCode).isEmpty()) {
+        if (!subjectRepository.existsBySubjectCode(subjectCode)) {
             throw new ResourceNotFoundException("Subject not found with ID: " + subjectCode);
         }
 
-        List<Grade> grades = gradeRepository.findBySubjectSubjectCode(subjectCode);
-        return grades.stream()
-                .mapToDouble(Grade::getValue)
-                .average()
-                .orElse(0.0); // Return 0.0 if no grades found
+        Double average = gradeStatsRepository.averageBySubject(subjectCode);
+        return average == null ? 0.0 : average; // Return 0.0 if no grades found
     }
 
-
-
     /**
-     * Helper method to fetch grades for average calculation.
-     * Throws ResourceNotFoundException if student or subject does not exist.
+     * Calculates the overall weighted average of every student enrolled in a class with a single query
+     * over the pre-aggregated (student, subject) rows.
+     *
+     * @param classId The ID of the class.
+     * @return One entry per enrolled student, ordered by studentIdNum.
+     * @throws ResourceNotFoundException if class not found.
      */
-    private List<Grade> getGradesForCalculation(String studentIdNum, String subjectCode) {
-        // Validate student and subject existence
-        studentRepository.findByStudentIdNum(studentIdNum)
-                .orElseThrow(() -> new ResourceNotFoundException("Student not found with ID: " + studentIdNum));
-        subjectRepository.findBySubjectCode(subjectCode)
-                .orElseThrow(() -> new ResourceNotFoundException("Subject not found with ID: " + subjectCode));
+    @Override
+    @Transactional(readOnly = true)
+    public List<StudentAverageResponse> calculateClassOverallAverageGrades(Long classId) {
+        if (!classRepository.existsById(classId)) {
+            throw new ResourceNotFoundException("Class not found with ID: " + classId);
+        }
 
-        return gradeRepository.findByStudent_StudentIdNumAndSubject_SubjectCode(studentIdNum,subjectCode);
+        List<StudentAverageResponse> averages = gradeStatsRepository.findWeightedAveragesByClassId(classId);
+        averages.stream()
+                .filter(average -> average.getAverage() == null)
+                .forEach(average -> average.setAverage(0.0));
+        return averages;
     }
 
 
@@ -341,58 +527,73 @@ public class GradesServiceImpl implements GradesService {
     // --- Helper Methods ---
 
     /**
-     * Maps a Grade entity to a GradeResponse DTO.
-     * This includes mapping related Student, Subject, and Teacher entities to their respective DTOs.
+     * Checks one batch row against the preloaded entities.
+     *
+     * @return The reason the row is rejected, or null if it is valid.
+     */
+    private String validateBatchRow(GradeRequest request, Map<String, Student> students, Map<String, Subject> subjects,
+                                    Map<String, Teacher> teachers, Set<String> allowedSubjectCodes) {
+        if (request == null) {
+            return "Grade cannot be null.";
+        }
+        if (request.getValue() == null || request.getValue() < 0 || request.getValue() > 20) {
+            return "Grade value must be between 0 and 20.";
+        }
+        if (request.getDate() == null) {
+            return "Grade date cannot be null.";
+        }
+        if (request.getDate().isAfter(LocalDate.now())) {
+            return "Grade date cannot be in the future.";
+        }
+        if (request.getComment() != null && request.getComment().length() > 500) {
+            return "Comment cannot exceed 500 characters.";
+        }
+        if (!students.containsKey(request.getStudentIdNum())) {
+            return "Student not found with IDNum: " + request.getStudentIdNum();
+        }
+        if (!subjects.containsKey(request.getSubjectCode())) {
+            return "Subject not found with ID: " + request.getSubjectCode();
+        }
+        if (request.getRecordedBy() != null && !teachers.containsKey(request.getRecordedBy())) {
+            return "Teacher not found with ID: " + request.getRecordedBy();
+        }
+        if (allowedSubjectCodes != null && !allowedSubjectCodes.contains(request.getSubjectCode())) {
+            return "Teacher is not assigned to subject: " + request.getSubjectCode();
+        }
+        return null;
+    }
+
+    private static Set<String> collectKeys(List<GradeRequest> requests, Function<GradeRequest, String> key) {
+        return requests.stream()
+                .filter(Objects::nonNull)
+                .map(key)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Maps a Grade entity that was just written to a GradeResponse DTO.
+     * Reads go through the GradeResponse projections of GradeRepository instead.
      *
      * @param grade The Grade entity to map.
      * @return The GradeResponse DTO.
      */
     private GradeResponse mapGradeToResponse(Grade grade) {
-        StudentResponse studentResponse = null;
-        if (grade.getStudent() != null) {
-            studentResponse = StudentResponse.builder()
-                    .id(grade.getStudent().getId())
-                    .username(grade.getStudent().getUsername())
-                    .firstname(grade.getStudent().getFirstname())
-                    .lastname(grade.getStudent().getLastname())
-                    .email(grade.getStudent().getEmail())
-                    .role(grade.getStudent().getRole())
-                    .studentIdNum(grade.getStudent().getStudentIdNum())
-                    .build();
-        }
-
-        SubjectResponse subjectResponse = null;
-        if (grade.getSubject() != null) {
-            subjectResponse = SubjectResponse.builder()
-                    .id(grade.getSubject().getId())
-                    .subjectCode(grade.getSubject().getSubjectCode())
-                    .name(grade.getSubject().getName())
-                    .coefficient(grade.getSubject().getCoefficient())
-                    .description(grade.getSubject().getDescription())
-                    .build();
-        }
-
-        TeacherResponse recordedByTeacherResponse = null;
-        if (grade.getRecordedByTeacher() != null) {
-            recordedByTeacherResponse = TeacherResponse.builder()
-                    .id(grade.getRecordedByTeacher().getId())
-                    .username(grade.getRecordedByTeacher().getUsername())
-                    .firstname(grade.getRecordedByTeacher().getFirstname())
-                    .lastname(grade.getRecordedByTeacher().getLastname())
-                    .email(grade.getRecordedByTeacher().getEmail())
-                    .role(grade.getRecordedByTeacher().getRole())
-                    .teacherIdNum(grade.getRecordedByTeacher().getTeacherIdNum())
-                    .build();
-        }
+        Student student = grade.getStudent();
+        Subject subject = grade.getSubject();
+        Teacher recordedByTeacher = grade.getRecordedByTeacher();
 
         return GradeResponse.builder()
                 .id(grade.getId())
                 .value(grade.getValue())
                 .date(grade.getDate())
                 .comment(grade.getComment())
-                .studentIdNum(studentResponse.getStudentIdNum())
-                .subjectCode(subjectResponse.getSubjectCode())
-                .recordedBy(recordedByTeacherResponse.getTeacherIdNum())
+                .studentIdNum(student.getStudentIdNum())
+                .firstname(student.getFirstname())
+                .lastname(student.getLastname())
+                .subjectCode(subject.getSubjectCode())
+                .subjectName(subject.getName())
+                .recordedBy(recordedByTeacher != null ? recordedByTeacher.getTeacherIdNum() : null)
                 .build();
     }
 }
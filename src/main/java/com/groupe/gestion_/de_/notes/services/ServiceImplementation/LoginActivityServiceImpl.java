@@ -0,0 +1,109 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import com.groupe.gestion_.de_.notes.security.SecurityUserService.UserPrincipal;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.LoginActivityService;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.LoginRecordsService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Session-aware audit of authenticated traffic.
+ * A login_records row is written once per token (keyed by its "jti"), never per request: the unique
+ * login_records.token_id makes the insert a no-op on every instance but the first one to see the token,
+ * and the in-memory set of recorded tokens saves this instance from queueing it again on each request.
+ * Per-request activity only updates an in-memory map (one entry per user, last write wins)
+ * that a background flush turns into a single batched UPDATE of login_records.last_activity.
+ */
+@Service
+public class LoginActivityServiceImpl implements LoginActivityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginActivityServiceImpl.class);
+
+    private static final String HEARTBEAT_SQL =
+            "UPDATE login_records SET last_activity = ? WHERE user_id = ? AND log_out IS NULL";
+
+    private final LoginRecordsService loginRecordsService;
+    private final JdbcTemplate jdbcTemplate;
+    private final long jwtExpirationMs;
+
+    // jti -> token expiry (epoch ms) of the tokens whose login is already recorded
+    private final Map<String, Long> recordedTokens = new ConcurrentHashMap<>();
+    // userId -> last time the user was seen, coalesced until the next flush
+    private final Map<Long, LocalDateTime> pendingHeartbeats = new ConcurrentHashMap<>();
+
+    public LoginActivityServiceImpl(LoginRecordsService loginRecordsService,
+                                    JdbcTemplate jdbcTemplate,
+                                    @Value("${gestion_.de_.notes.app.jwtExpirationMs}") long jwtExpirationMs) {
+        this.loginRecordsService = loginRecordsService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.jwtExpirationMs = jwtExpirationMs;
+    }
+
+    @Override
+    public void registerSignin(UserPrincipal principal, String ipAddress) {
+        loginRecordsService.recordLogout(principal.getId());
+        loginRecordsService.recordLogin(principal.getId(), ipAddress, principal.getTokenId());
+
+        if (principal.getTokenId() != null) {
+            recordedTokens.put(principal.getTokenId(), System.currentTimeMillis() + jwtExpirationMs);
+        }
+    }
+
+    @Override
+    public void recordActivity(UserPrincipal principal, String ipAddress) {
+        if (principal.getTokenId() != null) {
+            long expiresAt = principal.getTokenExpiresAt() != null
+                    ? principal.getTokenExpiresAt().toEpochMilli()
+                    : System.currentTimeMillis() + jwtExpirationMs;
+            // First request seen here with a token issued elsewhere (other instance, or before a restart)
+            if (recordedTokens.putIfAbsent(principal.getTokenId(), expiresAt) == null) {
+                loginRecordsService.recordLogin(principal.getId(), ipAddress, principal.getTokenId());
+            }
+        }
+
+        pendingHeartbeats.put(principal.getId(), LocalDateTime.now());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.audit.heartbeat-flush-ms:30000}")
+    public void flushHeartbeats() {
+        long now = Instant.now().toEpochMilli();
+        recordedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+
+        if (pendingHeartbeats.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>();
+        for (Long userId : new ArrayList<>(pendingHeartbeats.keySet())) {
+            LocalDateTime lastSeen = pendingHeartbeats.remove(userId);
+            if (lastSeen != null) {
+                batch.add(new Object[]{Timestamp.valueOf(lastSeen), userId});
+            }
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(HEARTBEAT_SQL, batch);
+        } catch (Exception e) {
+            logger.error("Cannot flush {} login heartbeats: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushHeartbeats();
+    }
+}
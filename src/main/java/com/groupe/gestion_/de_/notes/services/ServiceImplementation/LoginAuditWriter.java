@@ -0,0 +1,206 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous writer in front of login_records.
+ * Signin/logout events are put on a bounded lock-free queue and a single background thread
+ * drains them with JDBC batch statements, so the login request never waits for an audit write.
+ * When the queue is full producers wait briefly (backpressure) and then drop the event.
+ */
+@Component
+public class LoginAuditWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAuditWriter.class);
+
+    private static final String INSERT_LOGIN_SQL =
+            "INSERT INTO login_records (user_id, log_in, ip_address, token_id) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (token_id) DO NOTHING";
+    private static final String CLOSE_SESSIONS_SQL =
+            "UPDATE login_records SET log_out = ? WHERE user_id = ? AND log_out IS NULL";
+
+    public enum EventType { LOGIN, LOGOUT }
+
+    public record LoginAuditEvent(EventType type, Long userId, LocalDateTime at, String ipAddress, String tokenId) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int capacity;
+    private final int batchSize;
+    private final long maxOfferWaitNanos;
+
+    private final Queue<LoginAuditEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
+
+    private final Counter enqueued;
+    private final Counter overflowed;
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public LoginAuditWriter(JdbcTemplate jdbcTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.audit.queue-capacity:10000}") int capacity,
+                            @Value("${app.audit.batch-size:200}") int batchSize,
+                            @Value("${app.audit.max-offer-wait-ms:50}") long maxOfferWaitMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.maxOfferWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxOfferWaitMs);
+
+        this.enqueued = meterRegistry.counter("audit.login.queue", "outcome", "enqueued");
+        this.overflowed = meterRegistry.counter("audit.login.queue", "outcome", "overflow");
+        this.dropped = meterRegistry.counter("audit.login.queue", "outcome", "dropped");
+        this.written = meterRegistry.counter("audit.login.written");
+        this.failed = meterRegistry.counter("audit.login.failed");
+        meterRegistry.gauge("audit.login.queue.size", queueSize);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::drainLoop, "login-audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * @param tokenId "jti" of the session's token, or null. The login of a token already recorded, by any instance, is skipped.
+     */
+    public boolean recordLogin(Long userId, String ipAddress, String tokenId) {
+        return offer(new LoginAuditEvent(EventType.LOGIN, userId, LocalDateTime.now(), ipAddress, tokenId));
+    }
+
+    public boolean recordLogout(Long userId) {
+        return offer(new LoginAuditEvent(EventType.LOGOUT, userId, LocalDateTime.now(), null, null));
+    }
+
+    /**
+     * Enqueues an event, waiting at most max-offer-wait-ms for room when the queue is full.
+     *
+     * @return false if the event had to be dropped.
+     */
+    public boolean offer(LoginAuditEvent event) {
+        if (!reserveSlot()) {
+            overflowed.increment();
+            long deadline = System.nanoTime() + maxOfferWaitNanos;
+            boolean reserved = false;
+            while (!reserved && System.nanoTime() < deadline) {
+                LockSupport.unpark(writerThread);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                reserved = reserveSlot();
+            }
+            if (!reserved) {
+                dropped.increment();
+                logger.warn("Login audit queue full, dropping {} event for user {}", event.type(), event.userId());
+                return false;
+            }
+        }
+
+        queue.offer(event);
+        enqueued.increment();
+        return true;
+    }
+
+    private boolean reserveSlot() {
+        int size;
+        do {
+            size = queueSize.get();
+            if (size >= capacity) {
+                return false;
+            }
+        } while (!queueSize.compareAndSet(size, size + 1));
+        return true;
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (drainOnce() == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+            }
+        }
+    }
+
+    /**
+     * Writes up to one batch of queued events. Consecutive events of the same type are
+     * sent as one JDBC batch; the queue order is kept so a logout always closes the
+     * previous session before the next login row is inserted.
+     *
+     * @return The number of events taken from the queue.
+     */
+    int drainOnce() {
+        List<LoginAuditEvent> events = new ArrayList<>(batchSize);
+        LoginAuditEvent event;
+        while (events.size() < batchSize && (event = queue.poll()) != null) {
+            queueSize.decrementAndGet();
+            events.add(event);
+        }
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        int start = 0;
+        while (start < events.size()) {
+            EventType type = events.get(start).type();
+            int end = start;
+            while (end < events.size() && events.get(end).type() == type) {
+                end++;
+            }
+            writeBatch(type, events.subList(start, end));
+            start = end;
+        }
+        return events.size();
+    }
+
+    private void writeBatch(EventType type, List<LoginAuditEvent> events) {
+        List<Object[]> args = new ArrayList<>(events.size());
+        for (LoginAuditEvent e : events) {
+            if (type == EventType.LOGIN) {
+                args.add(new Object[]{e.userId(), Timestamp.valueOf(e.at()), e.ipAddress(), e.tokenId()});
+            } else {
+                args.add(new Object[]{Timestamp.valueOf(e.at()), e.userId()});
+            }
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(type == EventType.LOGIN ? INSERT_LOGIN_SQL : CLOSE_SESSIONS_SQL, args);
+            written.increment(events.size());
+        } catch (Exception ex) {
+            failed.increment(events.size());
+            logger.error("Cannot write {} {} audit events: {}", events.size(), type, ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+
+        // Flush whatever is still queued before the datasource goes away
+        while (drainOnce() > 0) {
+            // keep draining
+        }
+    }
+}
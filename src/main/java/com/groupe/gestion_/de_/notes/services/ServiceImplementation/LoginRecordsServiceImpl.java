@@ -12,7 +12,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -23,29 +22,42 @@ public class LoginRecordsServiceImpl implements LoginRecordsService {
 
     private final LoginRecordRepository loginRecordRepository;
     private final UserRepository userRepository;
+    private final LoginAuditWriter loginAuditWriter;
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public void recordLogin(String username, String ipAddress) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
-
-        LoginRecord loginRecord = new LoginRecord(user, LocalDateTime.now(), ipAddress);
-        loginRecordRepository.save(loginRecord);
+        recordLogin(findUserId(username), ipAddress);
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public void recordLogout(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
+        recordLogout(findUserId(username));
+    }
+
+    /**
+     * Queues the login event; the row is inserted in batch by the background audit writer.
+     */
+    @Override
+    public void recordLogin(Long userId, String ipAddress) {
+        loginAuditWriter.recordLogin(userId, ipAddress, null);
+    }
+
+    /**
+     * Queues the login of a token; written at most once per token, the insert is skipped when its jti is already recorded.
+     */
+    @Override
+    public void recordLogin(Long userId, String ipAddress, String tokenId) {
+        loginAuditWriter.recordLogin(userId, ipAddress, tokenId);
+    }
 
-        // Find the latest login record for the user that does not have a logout time
-        loginRecordRepository.findTopByUserIdAndLogOutNullOrderByLogInDesc(user.getId())
-                .ifPresent(record -> {
-                    record.setLogOut(LocalDateTime.now());
-                    loginRecordRepository.save(record);
-                });
+    /**
+     * Queues the logout event; every open session of the user is closed by the background audit writer.
+     */
+    @Override
+    public void recordLogout(Long userId) {
+        loginAuditWriter.recordLogout(userId);
     }
 
     @Override
@@ -73,6 +85,12 @@ public class LoginRecordsServiceImpl implements LoginRecordsService {
         return loginRecordRepository.findById(id).map(this::mapToResponse);
     }
 
+    private Long findUserId(String username) {
+        return userRepository.findByUsername(username)
+                .map(User::getId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
+    }
+
     private LoginRecordResponse mapToResponse(LoginRecord record) {
         UserResponse userResponse = new UserResponse(
                 record.getUser().getId(),
@@ -83,12 +101,14 @@ public class LoginRecordsServiceImpl implements LoginRecordsService {
                 record.getUser().getRole()
         );
 
-        return new LoginRecordResponse(
+        LoginRecordResponse response = new LoginRecordResponse(
                 record.getId(),
                 userResponse,
                 record.getLogIn(),
                 record.getLogOut(),
                 record.getIpAddress()
         );
+        response.setLastActivity(record.getLastActivity());
+        return response;
     }
 }
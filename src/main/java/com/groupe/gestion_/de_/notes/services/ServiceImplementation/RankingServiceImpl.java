@@ -0,0 +1,362 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import com.groupe.gestion_.de_.notes.dto.StudentRankResponse;
+import com.groupe.gestion_.de_.notes.events.AuthorizationDataChangedEvent;
+import com.groupe.gestion_.de_.notes.events.EnrollmentChangedEvent;
+import com.groupe.gestion_.de_.notes.events.GradeChangedEvent;
+import com.groupe.gestion_.de_.notes.events.GradeOutboxBatchEvent;
+import com.groupe.gestion_.de_.notes.events.SubjectCoefficientChangedEvent;
+import com.groupe.gestion_.de_.notes.exceptions.ResourceNotFoundException;
+import com.groupe.gestion_.de_.notes.repository.ClassRepository;
+import com.groupe.gestion_.de_.notes.repository.EnrollmentRepository;
+import com.groupe.gestion_.de_.notes.repository.StudentSubjectGradeStatsRepository;
+import com.groupe.gestion_.de_.notes.repository.SubjectRepository;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.RankingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Ranks and percentiles of the students of a class, per subject and overall (weighted by subject coefficient).
+ * Each class keeps one list per scope, sorted by average descending, built from the per student/subject
+ * aggregates on first use. A committed grade write only marks its students dirty; on the next read
+ * those students are taken out of the lists and binary-inserted back with their new averages, so a
+ * ranking is never re-sorted from scratch. Enrollment, subject and coefficient changes drop the class.
+ */
+@Service
+@RequiredArgsConstructor
+public class RankingServiceImpl implements RankingService {
+
+    private final ClassRepository classRepository;
+    private final SubjectRepository subjectRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final StudentSubjectGradeStatsRepository gradeStatsRepository;
+
+    private final Map<Long, ClassRanking> rankings = new ConcurrentHashMap<>(); // by class id
+
+    /**
+     * @param classId The ID of the class.
+     * @param subjectCode The subject to rank on, or null for the overall weighted average.
+     * @param top Optional maximum number of students to return, best first.
+     * @return The ranked students, best first; students without grades in scope are left out.
+     * @throws ResourceNotFoundException if class or subject not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<StudentRankResponse> getClassRanking(Long classId, String subjectCode, Integer top) {
+        ClassRanking ranking = ranking(classId);
+        synchronized (ranking) {
+            List<Standing> order = order(ranking, subjectCode);
+            int end = top == null ? order.size() : Math.max(0, Math.min(top, order.size()));
+            return toResponses(order, 0, end, subjectCode);
+        }
+    }
+
+    /**
+     * @param classId The ID of the class.
+     * @param studentIdNum The student to rank.
+     * @param subjectCode The subject to rank on, or null for the overall weighted average.
+     * @return The student's rank and percentile; both null if the student has no grades in scope.
+     * @throws ResourceNotFoundException if class or subject not found, or the student is not enrolled in the class.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public StudentRankResponse getStudentRank(Long classId, String studentIdNum, String subjectCode) {
+        ClassRanking ranking = ranking(classId);
+        synchronized (ranking) {
+            List<Standing> order = order(ranking, subjectCode);
+            Standing standing = ranking.standings.values().stream()
+                    .filter(candidate -> candidate.studentIdNum.equals(studentIdNum))
+                    .findFirst()
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            "Student " + studentIdNum + " is not enrolled in class " + classId));
+            return toResponse(order, standing, subjectCode);
+        }
+    }
+
+    /**
+     * @param classId The ID of the class.
+     * @param threshold Averages strictly below this value are returned.
+     * @param subjectCode The subject to rank on, or null for the overall weighted average.
+     * @return The students below the threshold, best first.
+     * @throws ResourceNotFoundException if class or subject not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<StudentRankResponse> getStudentsBelow(Long classId, double threshold, String subjectCode) {
+        ClassRanking ranking = ranking(classId);
+        synchronized (ranking) {
+            List<Standing> order = order(ranking, subjectCode);
+            int start = firstIndex(order, standing -> standing.average(subjectCode) < threshold);
+            return toResponses(order, start, order.size(), subjectCode);
+        }
+    }
+
+    // The students' new averages are read lazily, by the next ranking request on their classes
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGradeChanged(GradeChangedEvent event) {
+        for (ClassRanking ranking : rankings.values()) {
+            for (Long studentId : event.studentIds()) {
+                if (!ranking.loaded || ranking.standings.containsKey(studentId)) {
+                    ranking.dirty.add(studentId);
+                }
+            }
+        }
+    }
+
+    // Changes committed by the other instances too, a poll interval later
+    @EventListener
+    public void onOutboxBatch(GradeOutboxBatchEvent event) {
+        onGradeChanged(new GradeChangedEvent(event.studentIds(), event.subjectIds()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        rankings.remove(event.classId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubjectCoefficientChanged(SubjectCoefficientChangedEvent event) {
+        rankings.clear();
+    }
+
+    // Renamed or deleted subjects, deleted classes and users
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorizationDataChanged(AuthorizationDataChangedEvent event) {
+        rankings.clear();
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Returns the ranking of the class, loading it on first use and re-ranking its dirty students.
+     */
+    private ClassRanking ranking(Long classId) {
+        ClassRanking ranking = rankings.get(classId);
+        if (ranking == null) {
+            if (!classRepository.existsById(classId)) {
+                throw new ResourceNotFoundException("Class not found with ID: " + classId);
+            }
+            // Registered before loading so that writes committed meanwhile mark it dirty
+            ranking = rankings.computeIfAbsent(classId, id -> new ClassRanking());
+        }
+        synchronized (ranking) {
+            if (!ranking.loaded) {
+                load(classId, ranking);
+            } else if (!ranking.dirty.isEmpty()) {
+                refresh(ranking);
+            }
+        }
+        return ranking;
+    }
+
+    private void load(Long classId, ClassRanking ranking) {
+        ranking.dirty.clear();
+        ranking.standings.clear(); // leftovers of a load that failed midway
+        ranking.overall.clear();
+        ranking.bySubject.clear();
+        for (Object[] row : enrollmentRepository.findEnrolledStudentsByClassId(classId)) {
+            Standing standing = new Standing((Long) row[0], (String) row[1], (String) row[2], (String) row[3]);
+            ranking.standings.put(standing.studentId, standing);
+        }
+        fill(ranking, gradeStatsRepository.findRankingRowsByClassId(classId));
+
+        for (Standing standing : ranking.standings.values()) {
+            standing.computeAverages();
+            if (standing.overallAverage != null) {
+                ranking.overall.add(standing);
+            }
+            for (String subjectCode : standing.subjectAverages.keySet()) {
+                ranking.bySubject.computeIfAbsent(subjectCode, code -> new ArrayList<>()).add(standing);
+            }
+        }
+        ranking.overall.sort(byAverageDescending(null));
+        ranking.bySubject.forEach((subjectCode, order) -> order.sort(byAverageDescending(subjectCode)));
+        ranking.loaded = true;
+    }
+
+    private void refresh(ClassRanking ranking) {
+        Set<Long> studentIds = new HashSet<>(ranking.dirty);
+        ranking.dirty.removeAll(studentIds);
+        studentIds.retainAll(ranking.standings.keySet());
+        if (studentIds.isEmpty()) {
+            return;
+        }
+
+        for (Long studentId : studentIds) {
+            Standing standing = ranking.standings.get(studentId);
+            remove(ranking, standing);
+            standing.subjects.clear();
+        }
+        fill(ranking, gradeStatsRepository.findRankingRowsByStudentIds(studentIds));
+        for (Long studentId : studentIds) {
+            Standing standing = ranking.standings.get(studentId);
+            standing.computeAverages();
+            insert(ranking, standing);
+        }
+    }
+
+    private static void fill(ClassRanking ranking, Collection<Object[]> rows) {
+        for (Object[] row : rows) {
+            Standing standing = ranking.standings.get((Long) row[0]);
+            if (standing != null) {
+                double coefficient = row[4] == null ? 0.0 : ((Number) row[4]).doubleValue();
+                standing.subjects.put((String) row[1],
+                        new double[] {((Number) row[2]).doubleValue(), ((Number) row[3]).doubleValue(), coefficient});
+            }
+        }
+    }
+
+    private static void remove(ClassRanking ranking, Standing standing) {
+        if (standing.overallAverage != null) {
+            removeFrom(ranking.overall, standing, null);
+        }
+        for (String subjectCode : standing.subjectAverages.keySet()) {
+            removeFrom(ranking.bySubject.get(subjectCode), standing, subjectCode);
+        }
+    }
+
+    private static void insert(ClassRanking ranking, Standing standing) {
+        if (standing.overallAverage != null) {
+            insertInto(ranking.overall, standing, null);
+        }
+        for (String subjectCode : standing.subjectAverages.keySet()) {
+            insertInto(ranking.bySubject.computeIfAbsent(subjectCode, code -> new ArrayList<>()), standing, subjectCode);
+        }
+    }
+
+    private static void removeFrom(List<Standing> order, Standing standing, String subjectCode) {
+        int index = Collections.binarySearch(order, standing, byAverageDescending(subjectCode));
+        if (index >= 0) {
+            order.remove(index);
+        }
+    }
+
+    private static void insertInto(List<Standing> order, Standing standing, String subjectCode) {
+        int index = Collections.binarySearch(order, standing, byAverageDescending(subjectCode));
+        order.add(index >= 0 ? index : -index - 1, standing);
+    }
+
+    private List<Standing> order(ClassRanking ranking, String subjectCode) {
+        if (subjectCode == null) {
+            return ranking.overall;
+        }
+        List<Standing> order = ranking.bySubject.get(subjectCode);
+        if (order != null) {
+            return order;
+        }
+        if (!subjectRepository.existsBySubjectCode(subjectCode)) {
+            throw new ResourceNotFoundException("Subject not found with ID: " + subjectCode);
+        }
+        return List.of(); // nobody in the class has a grade in this subject yet
+    }
+
+    private static List<StudentRankResponse> toResponses(List<Standing> order, int start, int end, String subjectCode) {
+        List<StudentRankResponse> responses = new ArrayList<>(Math.max(0, end - start));
+        for (int i = start; i < end; i++) {
+            responses.add(toResponse(order, order.get(i), subjectCode));
+        }
+        return responses;
+    }
+
+    private static StudentRankResponse toResponse(List<Standing> order, Standing standing, String subjectCode) {
+        Double average = standing.average(subjectCode);
+        StudentRankResponse.StudentRankResponseBuilder response = StudentRankResponse.builder()
+                .studentIdNum(standing.studentIdNum)
+                .firstname(standing.firstname)
+                .lastname(standing.lastname)
+                .average(average)
+                .rankedCount(order.size());
+        if (average == null) {
+            return response.build();
+        }
+
+        // Binary searches on the descending order: [0, above) are better, [above, notBelow) are ties
+        int above = firstIndex(order, other -> other.average(subjectCode) <= average);
+        int notBelow = firstIndex(order, other -> other.average(subjectCode) < average);
+        int below = order.size() - notBelow;
+        double percentile = 100.0 * (below + 0.5 * (notBelow - above)) / order.size();
+        return response.rank(above + 1).percentile(percentile).build();
+    }
+
+    /**
+     * @return The first index of the descending order from which the predicate holds (order.size() if never).
+     */
+    private static int firstIndex(List<Standing> order, Predicate<Standing> predicate) {
+        int low = 0;
+        int high = order.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (predicate.test(order.get(middle))) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    private static Comparator<Standing> byAverageDescending(String subjectCode) {
+        ToDoubleFunction<Standing> average = standing -> standing.average(subjectCode);
+        return Comparator.comparingDouble(average).reversed().thenComparing(standing -> standing.studentIdNum);
+    }
+
+    private static final class ClassRanking {
+        final Map<Long, Standing> standings = new ConcurrentHashMap<>(); // by student id
+        final List<Standing> overall = new ArrayList<>();
+        final Map<String, List<Standing>> bySubject = new HashMap<>(); // by subject code
+        final Set<Long> dirty = ConcurrentHashMap.newKeySet(); // student ids whose grades changed
+        volatile boolean loaded;
+    }
+
+    private static final class Standing {
+        final Long studentId;
+        final String studentIdNum;
+        final String firstname;
+        final String lastname;
+        final Map<String, double[]> subjects = new HashMap<>(); // subject code -> {gradeSum, gradeCount, coefficient}
+        final Map<String, Double> subjectAverages = new HashMap<>();
+        Double overallAverage;
+
+        Standing(Long studentId, String studentIdNum, String firstname, String lastname) {
+            this.studentId = studentId;
+            this.studentIdNum = studentIdNum;
+            this.firstname = firstname;
+            this.lastname = lastname;
+        }
+
+        void computeAverages() {
+            subjectAverages.clear();
+            double weightedSum = 0;
+            double weight = 0;
+            for (Map.Entry<String, double[]> entry : subjects.entrySet()) {
+                double[] stats = entry.getValue();
+                if (stats[1] > 0) {
+                    subjectAverages.put(entry.getKey(), stats[0] / stats[1]);
+                }
+                weightedSum += stats[0] * stats[2];
+                weight += stats[1] * stats[2];
+            }
+            overallAverage = weight > 0 ? weightedSum / weight : null;
+        }
+
+        Double average(String subjectCode) {
+            return subjectCode == null ? overallAverage : subjectAverages.get(subjectCode);
+        }
+    }
+}
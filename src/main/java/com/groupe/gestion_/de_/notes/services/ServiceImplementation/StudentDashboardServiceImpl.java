@@ -0,0 +1,98 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import com.groupe.gestion_.de_.notes.dto.StudentDashboardResponse;
+import com.groupe.gestion_.de_.notes.exceptions.ResourceNotFoundException;
+import com.groupe.gestion_.de_.notes.model.Student;
+import com.groupe.gestion_.de_.notes.repository.EnrollmentRepository;
+import com.groupe.gestion_.de_.notes.repository.GradeRepository;
+import com.groupe.gestion_.de_.notes.repository.StudentRepository;
+import com.groupe.gestion_.de_.notes.services.ServiceInterface.StudentDashboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+@RequiredArgsConstructor
+public class StudentDashboardServiceImpl implements StudentDashboardService {
+
+    private final StudentRepository studentRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final GradeRepository gradeRepository;
+
+    /**
+     * Builds the student home page in one read-only transaction: the student, the enrollments
+     * joined to their class and subject, and the grades joined to their subject and teacher.
+     * Subject and overall averages are computed from those grades, so they always match the list.
+     *
+     * @param studentIdNum The ID of the student.
+     * @return The dashboard DTO.
+     * @throws ResourceNotFoundException if student not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public StudentDashboardResponse getDashboard(String studentIdNum) {
+        Student student = studentRepository.findByStudentIdNum(studentIdNum)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found with ID: " + studentIdNum));
+
+        Map<String, SubjectAccumulator> subjects = new TreeMap<>(); // by subject code
+        List<StudentDashboardResponse.Enrollment> enrollments = new ArrayList<>();
+        for (Object[] row : enrollmentRepository.findDashboardRowsByStudentId(student.getId())) {
+            enrollments.add(new StudentDashboardResponse.Enrollment((Long) row[0], (Long) row[1], (String) row[2],
+                    (String) row[3], (String) row[6], (String) row[7], (LocalDate) row[8]));
+            subjects.computeIfAbsent((String) row[3], code -> new SubjectAccumulator(code, (String) row[4], (Double) row[5]));
+        }
+        for (Object[] row : gradeRepository.findDashboardRowsByStudentId(student.getId())) {
+            SubjectAccumulator subject = subjects.computeIfAbsent((String) row[0],
+                    code -> new SubjectAccumulator(code, (String) row[1], (Double) row[2]));
+            Double value = (Double) row[4];
+            subject.grades.add(new StudentDashboardResponse.Grade((Long) row[3], value, (LocalDate) row[5],
+                    (String) row[6], (String) row[7]));
+            if (value != null) {
+                subject.sum += value;
+                subject.count++;
+            }
+        }
+
+        // Each grade weighs its subject's coefficient, like the overall average endpoint
+        double weightedSum = 0;
+        double weight = 0;
+        List<StudentDashboardResponse.SubjectGrades> subjectGrades = new ArrayList<>(subjects.size());
+        for (SubjectAccumulator subject : subjects.values()) {
+            double coefficient = subject.coefficient == null ? 0.0 : subject.coefficient;
+            weightedSum += subject.sum * coefficient;
+            weight += subject.count * coefficient;
+            subjectGrades.add(new StudentDashboardResponse.SubjectGrades(subject.subjectCode, subject.subjectName,
+                    subject.coefficient, subject.count > 0 ? subject.sum / subject.count : null, subject.grades));
+        }
+
+        return StudentDashboardResponse.builder()
+                .studentIdNum(student.getStudentIdNum())
+                .firstname(student.getFirstname())
+                .lastname(student.getLastname())
+                .enrollments(enrollments)
+                .subjects(subjectGrades)
+                .overallAverage(weight > 0 ? weightedSum / weight : null)
+                .build();
+    }
+
+    private static final class SubjectAccumulator {
+        final String subjectCode;
+        final String subjectName;
+        final Double coefficient;
+        final List<StudentDashboardResponse.Grade> grades = new ArrayList<>();
+        double sum;
+        long count;
+
+        SubjectAccumulator(String subjectCode, String subjectName, Double coefficient) {
+            this.subjectCode = subjectCode;
+            this.subjectName = subjectName;
+            this.coefficient = coefficient;
+        }
+    }
+}
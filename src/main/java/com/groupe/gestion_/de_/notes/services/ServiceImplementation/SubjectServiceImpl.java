@@ -7,11 +7,15 @@ import com.groupe.gestion_.de_.notes.dto.SubjectRequest;
 import com.groupe.gestion_.de_.notes.dto.SubjectResponse;
 import com.groupe.gestion_.de_.notes.repository.SubjectRepository;
 import com.groupe.gestion_.de_.notes.services.ServiceInterface.SubjectService;
+import com.groupe.gestion_.de_.notes.events.AuthorizationDataChangedEvent;
+import com.groupe.gestion_.de_.notes.events.SubjectCoefficientChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -20,6 +24,7 @@ import java.util.stream.Collectors;
 public class SubjectServiceImpl implements SubjectService {
 
     private final SubjectRepository subjectRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Creates a new subject.
@@ -112,6 +117,12 @@ public class SubjectServiceImpl implements SubjectService {
             throw new BadRequestException("Subject with name " + request.getName() + " already exists.");
         }
 
+        if (!existingSubject.getSubjectCode().equals(request.getSubjectCode())) {
+            eventPublisher.publishEvent(new AuthorizationDataChangedEvent("subject code " + subjectCode + " renamed"));
+        }
+        if (!Objects.equals(existingSubject.getCoefficient(), request.getCoefficient())) {
+            eventPublisher.publishEvent(new SubjectCoefficientChangedEvent(existingSubject.getId()));
+        }
         existingSubject.setSubjectCode(request.getSubjectCode());
         existingSubject.setName(request.getName());
         existingSubject.setCoefficient(request.getCoefficient());
@@ -135,6 +146,7 @@ public class SubjectServiceImpl implements SubjectService {
         // TODO: Add check here if subject has associated grades or class_subjects before deleting
         // If it does, consider throwing a BadRequestException or handling cascade deletion.
         subjectRepository.deleteById(id);
+        eventPublisher.publishEvent(new AuthorizationDataChangedEvent("subject " + id + " deleted"));
     }
 
     // --- Helper Methods ---
@@ -0,0 +1,156 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import com.groupe.gestion_.de_.notes.model.TranscriptStatus;
+import com.groupe.gestion_.de_.notes.repository.TranscriptRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Moves the transcripts generated more than max-age-days ago to ARCHIVED, one batch per transaction:
+ * their PDFs are compressed into a new write-once ZIP segment of the academic year they were generated in,
+ * and the loose files no row points to any more are deleted. Entries are deduplicated by record hash (the file
+ * name), not by comparing bytes: rows sharing a file, within a run, point to a single entry; a file archived
+ * again by a later run, for a row still using it, gets a new entry in that run's segment.
+ * Old ERROR rows, which have no document, are deleted. Archived transcripts stay downloadable.
+ */
+@Component
+public class TranscriptArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(TranscriptArchiver.class);
+
+    private final TranscriptRepository transcriptRepository;
+    private final TranscriptFileStore transcriptFileStore;
+    private final TranscriptLocks transcriptLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAgeDays;
+    private final int batchSize;
+    private final int academicYearStartMonth;
+
+    public TranscriptArchiver(TranscriptRepository transcriptRepository,
+                              TranscriptFileStore transcriptFileStore,
+                              TranscriptLocks transcriptLocks,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.transcripts.archive.max-age-days:365}") int maxAgeDays,
+                              @Value("${app.transcripts.archive.batch-size:500}") int batchSize,
+                              @Value("${app.transcripts.archive.academic-year-start-month:9}") int academicYearStartMonth) {
+        this.transcriptRepository = transcriptRepository;
+        this.transcriptFileStore = transcriptFileStore;
+        this.transcriptLocks = transcriptLocks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAgeDays = maxAgeDays;
+        this.batchSize = batchSize;
+        this.academicYearStartMonth = academicYearStartMonth;
+    }
+
+    @Scheduled(cron = "${app.transcripts.archive.cron:0 0 4 * * *}")
+    public synchronized void archive() {
+        LocalDateTime before = LocalDateTime.now().minusDays(maxAgeDays);
+        int archived = 0;
+        int batch;
+        Map<String, String> archivedPaths = new HashMap<>(); // loose filepath -> entry written during this run
+        do {
+            Set<String> released = new HashSet<>();
+            Integer count = transactionTemplate.execute(status -> archiveBatch(before, archivedPaths, released));
+            batch = count == null ? 0 : count;
+            archived += batch;
+            deleteUnreferenced(released);
+        } while (batch == batchSize);
+
+        Integer purged = transactionTemplate.execute(status ->
+                transcriptRepository.deleteByStatusOlderThan(TranscriptStatus.ERROR, before));
+        logger.info("Archived {} transcripts generated before {}, deleted {} failed ones", archived, before, purged);
+    }
+
+    /**
+     * @param archivedPaths Entries already written by this run, reused instead of being written again. Segments are
+     *                      never rewritten, so an entry stays valid even if the batch that wrote it rolled back.
+     * @param released Collects the loose filepaths the archived rows pointed to.
+     * @return The number of rows locked for this batch.
+     */
+    private int archiveBatch(LocalDateTime before, Map<String, String> archivedPaths, Set<String> released) {
+        List<Long> ids = transcriptRepository.lockArchivableIds(before, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        // academic year -> filepath -> ids of the rows sharing that file; years in order, so that two
+        // instances archiving the same years take their bundle locks in the same order
+        Map<String, Map<String, List<Long>>> byYear = new TreeMap<>();
+        for (Object[] row : transcriptRepository.findArchiveRowsByIdIn(ids)) {
+            byYear.computeIfAbsent(academicYear((LocalDateTime) row[2]), year -> new HashMap<>())
+                    .computeIfAbsent((String) row[1], filepath -> new ArrayList<>())
+                    .add((Long) row[0]);
+        }
+
+        for (Map.Entry<String, Map<String, List<Long>>> year : byYear.entrySet()) {
+            List<String> toWrite = year.getValue().keySet().stream()
+                    .filter(filepath -> !archivedPaths.containsKey(filepath))
+                    .toList();
+            if (!toWrite.isEmpty()) {
+                // Held until this batch commits, which keeps the number of the new segment unique
+                transcriptLocks.lockBundle(year.getKey());
+                try {
+                    archivedPaths.putAll(transcriptFileStore.archive(year.getKey(), toWrite));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot write a transcript archive segment of " + year.getKey(), e);
+                }
+            }
+            year.getValue().forEach((filepath, rowIds) -> {
+                String archivedPath = archivedPaths.get(filepath);
+                if (archivedPath == null) {
+                    // Left GENERATED they would be picked again by every batch
+                    logger.warn("Transcript file {} is missing, {} rows marked as failed", filepath, rowIds.size());
+                    transcriptRepository.markFailed(rowIds, TranscriptStatus.ERROR, "File missing at archival: " + filepath,
+                            LocalDateTime.now());
+                    return;
+                }
+                transcriptRepository.markArchived(rowIds, TranscriptStatus.ARCHIVED, archivedPath);
+                released.add(filepath);
+            });
+        }
+        return ids.size();
+    }
+
+    /**
+     * Once committed: a newer transcript of the same record may still use the loose file. The check and the deletion
+     * happen under the file lock TranscriptServiceImpl.requestTranscript and TranscriptJobWorker take before pointing
+     * a row to the file, so a row inserted meanwhile either is seen here or sees the file gone.
+     */
+    private void deleteUnreferenced(Set<String> filepaths) {
+        for (String filepath : filepaths) {
+            transactionTemplate.executeWithoutResult(status -> {
+                transcriptLocks.lockFile(filepath);
+                if (transcriptRepository.existsByFilepath(filepath)) {
+                    return;
+                }
+                try {
+                    transcriptFileStore.delete(filepath);
+                } catch (IOException e) {
+                    logger.warn("Cannot delete archived transcript file {}: {}", filepath, e.getMessage());
+                }
+            });
+        }
+    }
+
+    // "2024-2025" for a date between the start month of 2024 and the one of 2025
+    private String academicYear(LocalDateTime date) {
+        int startYear = date.getMonthValue() >= academicYearStartMonth ? date.getYear() : date.getYear() - 1;
+        return startYear + "-" + (startYear + 1);
+    }
+}
@@ -0,0 +1,112 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import com.groupe.gestion_.de_.notes.dto.TranscriptData;
+import com.groupe.gestion_.de_.notes.model.Student;
+import com.groupe.gestion_.de_.notes.repository.EnrollmentRepository;
+import com.groupe.gestion_.de_.notes.repository.GradeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the academic records printed on transcripts with a fixed number of queries, whatever the number
+ * of students, enrollments or grades, and computes the averages in memory while reading the grades.
+ */
+@Component
+@RequiredArgsConstructor
+public class TranscriptDataAssembler {
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final GradeRepository gradeRepository;
+
+    /**
+     * Transcript data of every student enrolled in the class, ordered by studentIdNum, in three queries:
+     * the students, all their enrollments and all their grades (other classes included, a transcript
+     * covering the student's whole record).
+     *
+     * @param classId The ID of the class.
+     * @return One entry per enrolled student, empty if the class has none.
+     */
+    @Transactional(readOnly = true)
+    public List<TranscriptData> assembleForClass(Long classId) {
+        Map<Long, List<Object[]>> enrollmentsByStudent = groupByStudent(enrollmentRepository.findTranscriptRowsByClassId(classId));
+        Map<Long, List<Object[]>> gradesByStudent = groupByStudent(gradeRepository.findTranscriptRowsByClassId(classId));
+
+        List<TranscriptData> transcripts = new ArrayList<>();
+        for (Object[] student : enrollmentRepository.findEnrolledStudentsByClassId(classId)) {
+            Long studentId = (Long) student[0];
+            transcripts.add(build((String) student[1], (String) student[2], (String) student[3],
+                    enrollmentsByStudent.getOrDefault(studentId, List.of()),
+                    gradesByStudent.getOrDefault(studentId, List.of())));
+        }
+        return transcripts;
+    }
+
+    /**
+     * Transcript data of one student in two queries, its enrollments and its grades, whatever the
+     * number of subjects: averages are computed while reading the grades instead of being queried per subject.
+     *
+     * @param student The student, already loaded.
+     */
+    @Transactional(readOnly = true)
+    public TranscriptData assembleForStudent(Student student) {
+        return build(student.getStudentIdNum(), student.getFirstname(), student.getLastname(),
+                enrollmentRepository.findTranscriptRowsByStudentId(student.getId()),
+                gradeRepository.findTranscriptRowsByStudentId(student.getId()));
+    }
+
+    /**
+     * @param enrollments [studentId, subjectCode, subjectName] rows, one transcript line each.
+     * @param grades [studentId, subjectCode, coefficient, value] rows.
+     */
+    static TranscriptData build(String studentIdNum, String firstname, String lastname,
+                                List<Object[]> enrollments, List<Object[]> grades) {
+        Map<String, SubjectTotals> bySubject = new HashMap<>();
+        // Each grade weighs its subject's coefficient, like the overall average endpoint
+        double weightedSum = 0;
+        double weight = 0;
+        for (Object[] row : grades) {
+            Double coefficient = (Double) row[2];
+            Double value = (Double) row[3];
+            SubjectTotals totals = bySubject.computeIfAbsent((String) row[1], code -> new SubjectTotals());
+            totals.grades.add(value);
+            if (value != null) {
+                totals.sum += value;
+                totals.count++;
+                double c = coefficient == null ? 0.0 : coefficient;
+                weightedSum += value * c;
+                weight += c;
+            }
+        }
+
+        List<TranscriptData.SubjectLine> lines = new ArrayList<>(enrollments.size());
+        for (Object[] row : enrollments) {
+            SubjectTotals totals = bySubject.getOrDefault((String) row[1], SubjectTotals.NONE);
+            lines.add(new TranscriptData.SubjectLine((String) row[1], (String) row[2], Collections.unmodifiableList(totals.grades),
+                    totals.count > 0 ? totals.sum / totals.count : 0.0));
+        }
+        return new TranscriptData(studentIdNum, firstname, lastname, lines, weight > 0 ? weightedSum / weight : 0.0);
+    }
+
+    private static Map<Long, List<Object[]>> groupByStudent(List<Object[]> rows) {
+        Map<Long, List<Object[]>> byStudent = new HashMap<>();
+        for (Object[] row : rows) {
+            byStudent.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(row);
+        }
+        return byStudent;
+    }
+
+    private static final class SubjectTotals {
+        static final SubjectTotals NONE = new SubjectTotals();
+
+        final List<Double> grades = new ArrayList<>();
+        double sum;
+        long count;
+    }
+}
@@ -0,0 +1,301 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import com.groupe.gestion_.de_.notes.dto.TranscriptData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Content-addressed store of the transcript PDFs under app.transcripts.storage-dir.
+ * A PDF is filed under the SHA-256 of the data it prints (student, enrollments, grades, averages), so the
+ * same record always maps to the same file: it is rendered once, and again only after the record changed.
+ * Files are never rewritten in place, which also makes the hash a valid strong ETag.
+ * Old files are moved by TranscriptArchiver into write-once ZIP segments per academic year
+ * (archive/2024-2025-0001.zip, ...), addressed as "archive/2024-2025-0001.zip!/{same hash}.pdf" and read back
+ * through the ZIP central directory, so a transcript keeps its ETag once archived.
+ * The directory is shared state: when several instances run, it must be the same shared file system for all
+ * of them, since the transcripts table, the job workers and the archiver of every instance address the same files.
+ */
+@Component
+public class TranscriptFileStore {
+
+    // Bump when TranscriptPdfRenderer's layout changes, so existing files are not served for the new layout
+    private static final String LAYOUT_VERSION = "1";
+    private static final char SEPARATOR = '\u001F';
+    private static final String ARCHIVE_DIR = "archive";
+    private static final String ENTRY_SEPARATOR = "!/";
+
+    private final TranscriptPdfRenderer renderer;
+    private final Path root;
+
+    public TranscriptFileStore(TranscriptPdfRenderer renderer,
+                               @Value("${app.transcripts.storage-dir:./data/transcripts}") String storageDir) throws IOException {
+        this.renderer = renderer;
+        this.root = Paths.get(storageDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+    }
+
+    /**
+     * @return The path, relative to the storage directory, under which this transcript is (or would be) stored.
+     */
+    public String filepathFor(TranscriptData data) {
+        String key = hash(data);
+        return key.substring(0, 2) + "/" + key + ".pdf";
+    }
+
+    /**
+     * Renders and stores the transcript unless a file for the same data already exists.
+     *
+     * @return The relative filepath of the stored PDF.
+     */
+    public String store(TranscriptData data) throws IOException {
+        String filepath = filepathFor(data);
+        Path target = resolve(filepath);
+        if (Files.exists(target)) {
+            return filepath;
+        }
+        byte[] pdf = renderer.render(data);
+        Files.createDirectories(target.getParent());
+        // Written aside then renamed, a reader never sees a half-written file
+        Path temp = Files.createTempFile(target.getParent(), "transcript-", ".tmp");
+        try {
+            Files.write(temp, pdf);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return filepath;
+    }
+
+    /**
+     * The PDF of this transcript, read from its file when one exists and rendered otherwise, without being stored:
+     * nothing would reference or clean up a file created here.
+     */
+    public byte[] readOrRender(TranscriptData data) throws IOException {
+        try {
+            return Files.readAllBytes(resolve(filepathFor(data)));
+        } catch (NoSuchFileException e) {
+            return renderer.render(data);
+        }
+    }
+
+    /**
+     * Writes loose PDFs into a new segment of the archive of an academic year (archive/2024-2025-0001.zip, then -0002,
+     * ...), compressed, each under its loose file name, i.e. its record hash. A segment is written once, aside then
+     * renamed, and never rewritten: archiving a batch costs the size of the batch, whatever the size of the year.
+     * The caller holds TranscriptLocks.lockBundle for the year, which keeps the segment numbers unique.
+     *
+     * @return For each loose filepath, its filepath inside the segment. Missing files are left out.
+     */
+    public Map<String, String> archive(String academicYear, Collection<String> filepaths) throws IOException {
+        Path archiveDir = resolve(ARCHIVE_DIR);
+        Files.createDirectories(archiveDir);
+        String segmentPath = ARCHIVE_DIR + "/" + academicYear + "-" + String.format("%04d", nextSegment(archiveDir, academicYear)) + ".zip";
+        Path segment = resolve(segmentPath);
+
+        Map<String, String> entryNames = new HashMap<>();
+        Path temp = Files.createTempFile(archiveDir, "segment-", ".tmp");
+        try {
+            try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(temp))) {
+                for (String filepath : filepaths) {
+                    Path source = resolve(filepath);
+                    if (!Files.isReadable(source)) {
+                        continue;
+                    }
+                    // Named after the record hash like the loose file, which keeps the download ETag stable
+                    String entryName = source.getFileName().toString();
+                    zip.putNextEntry(new ZipEntry(entryName));
+                    Files.copy(source, zip);
+                    zip.closeEntry();
+                    entryNames.put(filepath, entryName);
+                }
+            }
+            if (entryNames.isEmpty()) {
+                return Map.of();
+            }
+            // No REPLACE_EXISTING: a segment that already exists is never overwritten
+            Files.move(temp, segment, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        // Checked on the renamed segment, before the caller lets go of the loose files
+        Map<String, String> archived = new HashMap<>();
+        try (ZipFile written = new ZipFile(segment.toFile())) {
+            for (Map.Entry<String, String> entry : entryNames.entrySet()) {
+                if (written.getEntry(entry.getValue()) == null) {
+                    throw new IOException("Entry " + entry.getValue() + " missing from " + segment + " after writing it");
+                }
+                archived.put(entry.getKey(), segmentPath + ENTRY_SEPARATOR + entry.getValue());
+            }
+        }
+        return archived;
+    }
+
+    // Highest segment number of the year plus one; bundles written before segments (2024-2025.zip) do not match
+    private static int nextSegment(Path archiveDir, String academicYear) throws IOException {
+        String prefix = academicYear + "-";
+        int last = 0;
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(archiveDir, prefix + "*.zip")) {
+            for (Path segment : segments) {
+                String number = segment.getFileName().toString();
+                number = number.substring(prefix.length(), number.length() - ".zip".length());
+                if (!number.isEmpty() && number.chars().allMatch(Character::isDigit)) {
+                    last = Math.max(last, Integer.parseInt(number));
+                }
+            }
+        }
+        return last + 1;
+    }
+
+    /**
+     * @return The stored PDF, loose or inside an archive bundle. Check exists() before serving it.
+     */
+    public Resource open(String filepath) {
+        int separator = filepath.indexOf(ENTRY_SEPARATOR);
+        if (separator < 0) {
+            return new FileSystemResource(resolve(filepath));
+        }
+        return new BundleEntryResource(resolve(filepath.substring(0, separator)),
+                filepath.substring(separator + ENTRY_SEPARATOR.length()));
+    }
+
+    public void delete(String filepath) throws IOException {
+        Files.deleteIfExists(resolve(filepath));
+    }
+
+    public boolean exists(String filepath) {
+        return Files.isReadable(resolve(filepath));
+    }
+
+    public Path resolve(String filepath) {
+        Path path = root.resolve(filepath).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Transcript path outside the storage directory: " + filepath);
+        }
+        return path;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    private static String hash(TranscriptData data) {
+        StringBuilder canonical = new StringBuilder(256)
+                .append(LAYOUT_VERSION).append(SEPARATOR)
+                .append(data.studentIdNum()).append(SEPARATOR)
+                .append(data.firstname()).append(SEPARATOR)
+                .append(data.lastname()).append(SEPARATOR)
+                .append(data.overallAverage());
+        for (TranscriptData.SubjectLine line : data.subjects()) {
+            canonical.append(SEPARATOR).append(line.subjectCode())
+                    .append(SEPARATOR).append(line.subjectName())
+                    .append(SEPARATOR).append(line.grades())
+                    .append(SEPARATOR).append(line.average());
+        }
+        return sha256(canonical.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e); // mandatory in every JRE
+        }
+    }
+
+    /**
+     * One PDF of an archive bundle. ZipFile seeks straight to the entry through the central directory,
+     * so reading it does not scan the bundle; the file is closed with the returned stream.
+     */
+    private static final class BundleEntryResource extends AbstractResource {
+
+        private final Path bundle;
+        private final String entryName;
+
+        BundleEntryResource(Path bundle, String entryName) {
+            this.bundle = bundle;
+            this.entryName = entryName;
+        }
+
+        @Override
+        public boolean exists() {
+            if (!Files.isReadable(bundle)) {
+                return false;
+            }
+            try (ZipFile zip = new ZipFile(bundle.toFile())) {
+                return zip.getEntry(entryName) != null;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            try (ZipFile zip = new ZipFile(bundle.toFile())) {
+                return entry(zip).getSize();
+            }
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            ZipFile zip = new ZipFile(bundle.toFile());
+            try {
+                return new FilterInputStream(zip.getInputStream(entry(zip))) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            zip.close();
+                        }
+                    }
+                };
+            } catch (IOException | RuntimeException e) {
+                zip.close();
+                throw e;
+            }
+        }
+
+        private ZipEntry entry(ZipFile zip) throws FileNotFoundException {
+            ZipEntry entry = zip.getEntry(entryName);
+            if (entry == null) {
+                throw new FileNotFoundException(entryName + " not found in " + bundle);
+            }
+            return entry;
+        }
+
+        @Override
+        public String getFilename() {
+            return entryName;
+        }
+
+        @Override
+        public String getDescription() {
+            return "archived transcript [" + bundle + "!/" + entryName + "]";
+        }
+    }
+}
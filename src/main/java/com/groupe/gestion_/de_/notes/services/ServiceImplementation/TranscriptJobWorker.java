@@ -0,0 +1,187 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import com.groupe.gestion_.de_.notes.model.Student;
+import com.groupe.gestion_.de_.notes.model.TranscriptStatus;
+import com.groupe.gestion_.de_.notes.repository.TranscriptRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders the transcripts queued in the transcripts table on a fixed pool of worker threads.
+ * Each poll claims at most as many PENDING rows as there are idle workers with
+ * SELECT ... FOR UPDATE SKIP LOCKED, so several instances share the queue without waiting on each other,
+ * and marks them PROCESSING before the lock is released. Rendering happens outside any transaction,
+ * and only when TranscriptFileStore has no file for the student's current record yet.
+ * A claim older than the lease (instance stopped mid-job) is requeued, or failed after max-attempts.
+ */
+@Component
+public class TranscriptJobWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(TranscriptJobWorker.class);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final TranscriptRepository transcriptRepository;
+    private final TranscriptDataAssembler transcriptDataAssembler;
+    private final TranscriptFileStore transcriptFileStore;
+    private final TranscriptLocks transcriptLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final int workers;
+    private final int maxAttempts;
+    private final long leaseMs;
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean running;
+
+    public TranscriptJobWorker(TranscriptRepository transcriptRepository,
+                               TranscriptDataAssembler transcriptDataAssembler,
+                               TranscriptFileStore transcriptFileStore,
+                               TranscriptLocks transcriptLocks,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.transcripts.workers:4}") int workers,
+                               @Value("${app.transcripts.max-attempts:3}") int maxAttempts,
+                               @Value("${app.transcripts.lease-ms:600000}") long leaseMs) {
+        this.transcriptRepository = transcriptRepository;
+        this.transcriptDataAssembler = transcriptDataAssembler;
+        this.transcriptFileStore = transcriptFileStore;
+        this.transcriptLocks = transcriptLocks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+        this.leaseMs = leaseMs;
+
+        // Never more than `workers` jobs are claimed at once, so the queue cannot overflow
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers), runnable -> {
+                    Thread thread = new Thread(runnable, "transcript-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        logger.info("Transcript worker started with {} threads, storing PDFs in {}", workers, transcriptFileStore.getRoot());
+    }
+
+    @Scheduled(fixedDelayString = "${app.transcripts.poll-interval-ms:500}")
+    public void poll() {
+        int idle = workers - inFlight.get();
+        if (!running || idle <= 0) {
+            return;
+        }
+        // Truncated so the value read back from the database still matches in finishClaim
+        LocalDateTime claimedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        List<Object[]> jobs = transactionTemplate.execute(status -> {
+            List<Long> ids = transcriptRepository.lockPendingIds(idle);
+            if (ids.isEmpty()) {
+                return List.<Object[]>of();
+            }
+            transcriptRepository.markClaimed(ids, TranscriptStatus.PROCESSING, claimedAt);
+            return transcriptRepository.findJobRowsByIdIn(ids);
+        });
+
+        for (Object[] job : jobs) {
+            inFlight.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    process((Long) job[0], (Student) job[1], (String) job[2], (Integer) job[3], claimedAt);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    private void process(Long id, Student student, String filepath, Integer attempts, LocalDateTime claimedAt) {
+        TranscriptStatus outcome;
+        String error = null;
+        try {
+            // The record is read again: grades may have changed since the request
+            filepath = transcriptFileStore.store(transcriptDataAssembler.assembleForStudent(student));
+            outcome = TranscriptStatus.GENERATED;
+        } catch (Exception e) {
+            boolean retry = canRetry(attempts);
+            outcome = retry ? TranscriptStatus.PENDING : TranscriptStatus.ERROR;
+            error = truncate(e.getClass().getSimpleName() + ": " + e.getMessage());
+            logger.warn("Transcript {} for student {} failed (attempt {}), {}", id, student.getStudentIdNum(), attempts,
+                    retry ? "requeued" : "giving up", e);
+        }
+
+        TranscriptStatus result = outcome;
+        String resultError = error;
+        String storedAt = filepath;
+        Integer updated = transactionTemplate.execute(tx -> {
+            TranscriptStatus status = result;
+            String errorMessage = resultError;
+            if (status == TranscriptStatus.GENERATED) {
+                // store() may have found a file TranscriptArchiver deleted since: checked again under the file lock
+                transcriptLocks.lockFile(storedAt);
+                if (!transcriptFileStore.exists(storedAt)) {
+                    boolean retry = canRetry(attempts);
+                    status = retry ? TranscriptStatus.PENDING : TranscriptStatus.ERROR;
+                    errorMessage = "Transcript file archived while it was stored" + (retry ? ", requeued" : "");
+                }
+            }
+            return transcriptRepository.finishClaim(id, claimedAt, status, LocalDateTime.now(), errorMessage, storedAt);
+        });
+        if (updated == null || updated == 0) {
+            logger.warn("Transcript {} was reclaimed after its lease expired, result of this attempt dropped", id);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.transcripts.lease-check-ms:60000}")
+    public void recoverExpiredClaims() {
+        if (!running) {
+            return;
+        }
+        LocalDateTime before = LocalDateTime.now().minus(leaseMs, ChronoUnit.MILLIS);
+        transactionTemplate.executeWithoutResult(tx -> {
+            int requeued = transcriptRepository.requeueExpiredClaims(TranscriptStatus.PENDING, TranscriptStatus.PROCESSING,
+                    before, maxAttempts);
+            int failed = transcriptRepository.failExpiredClaims(TranscriptStatus.ERROR, TranscriptStatus.PROCESSING,
+                    before, "Worker lease expired after " + maxAttempts + " attempts");
+            if (requeued + failed > 0) {
+                logger.warn("Transcript jobs with an expired claim: {} requeued, {} failed", requeued, failed);
+            }
+        });
+    }
+
+    private boolean canRetry(Integer attempts) {
+        return attempts != null && attempts < maxAttempts;
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * Jobs interrupted here stay PROCESSING and are picked up again once their lease expires.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * PostgreSQL advisory locks shared by every instance over the transcript files. They are transaction-scoped:
+ * taken inside the caller's transaction and released by its commit or rollback, so whatever the caller writes
+ * is visible before the next holder goes on.
+ */
+@Component
+public class TranscriptLocks {
+
+    private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtextextended(?, 0))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TranscriptLocks(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Serializes the rows pointing to a loose file with its deletion by TranscriptArchiver.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockFile(String filepath) {
+        lock("transcript-file:" + filepath);
+    }
+
+    /**
+     * Serializes the creation of the archive segments of an academic year, so that two writers never pick the same number.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockBundle(String academicYear) {
+        lock("transcript-bundle:" + academicYear);
+    }
+
+    private void lock(String key) {
+        // pg_advisory_xact_lock returns void: the row is read and ignored
+        jdbcTemplate.query(LOCK_SQL, resultSet -> null, key);
+    }
+}
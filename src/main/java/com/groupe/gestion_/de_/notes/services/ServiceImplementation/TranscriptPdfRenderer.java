@@ -0,0 +1,124 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import com.groupe.gestion_.de_.notes.dto.TranscriptData;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.stream.Collectors;
+
+/**
+ * Lays out a transcript PDF from already loaded data. Stateless and free of database access,
+ * so it can run on any thread.
+ */
+@Component
+public class TranscriptPdfRenderer {
+
+    private static final float TABLE_TOP = 620;
+    private static final float PAGE_BOTTOM = 90; // keeps the footer clear
+
+    public byte[] render(TranscriptData data) throws IOException {
+        try (PDDocument document = new PDDocument();
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+
+            PDPage page = new PDPage();
+            document.addPage(page);
+            PDPageContentStream contentStream = new PDPageContentStream(document, page);
+            try {
+                // A. Header
+                contentStream.beginText();
+                contentStream.setFont(PDType1Font.HELVETICA_BOLD, 18);
+                contentStream.newLineAtOffset(50, 750);
+                contentStream.showText("Academic Transcript");
+                contentStream.endText();
+
+                // B. Student Information
+                contentStream.beginText();
+                contentStream.setFont(PDType1Font.HELVETICA, 12);
+                contentStream.newLineAtOffset(50, 720);
+                contentStream.showText("Student Name: " + data.firstname() + " " + data.lastname());
+                contentStream.newLineAtOffset(0, -15);
+                contentStream.showText("Student studentIdNum: " + data.studentIdNum());
+                contentStream.newLineAtOffset(0, -15);
+                contentStream.showText("Date of Issue: " + LocalDate.now());
+                contentStream.endText();
+
+                // C. Grades Table
+                contentStream.beginText();
+                contentStream.setFont(PDType1Font.HELVETICA_BOLD, 14);
+                contentStream.newLineAtOffset(50, 650);
+                contentStream.showText("Enrollment and Grades");
+                contentStream.endText();
+
+                float yPosition = TABLE_TOP;
+                writeTableHeader(contentStream, yPosition);
+                yPosition -= 20;
+
+                // Table Rows, continued on a new page when the current one is full
+                for (TranscriptData.SubjectLine subject : data.subjects()) {
+                    if (yPosition < PAGE_BOTTOM) {
+                        contentStream.close();
+                        page = new PDPage();
+                        document.addPage(page);
+                        contentStream = new PDPageContentStream(document, page);
+                        yPosition = 750;
+                        writeTableHeader(contentStream, yPosition);
+                        yPosition -= 20;
+                    }
+
+                    // Grades as a comma-separated string
+                    String gradesString = subject.grades().stream()
+                            .map(String::valueOf)
+                            .collect(Collectors.joining(", "));
+
+                    contentStream.beginText();
+                    contentStream.newLineAtOffset(50, yPosition);
+                    contentStream.showText(subject.subjectName());
+                    contentStream.newLineAtOffset(200, 0);
+                    contentStream.showText(gradesString);
+                    contentStream.newLineAtOffset(150, 0);
+                    contentStream.showText(String.format("%.2f", subject.average()));
+                    contentStream.endText();
+
+                    yPosition -= 20;
+                }
+
+                // D. Overall Average
+                contentStream.beginText();
+                contentStream.setFont(PDType1Font.HELVETICA_BOLD, 12);
+                contentStream.newLineAtOffset(50, Math.max(yPosition - 30, 70));
+                contentStream.showText("Overall Weighted Average: " + String.format("%.2f", data.overallAverage()));
+                contentStream.endText();
+
+                // E. Footer/Signature
+                contentStream.beginText();
+                contentStream.setFont(PDType1Font.HELVETICA_OBLIQUE, 10);
+                contentStream.newLineAtOffset(50, 50);
+                contentStream.showText("This is an official document of the institution.");
+                contentStream.endText();
+            } finally {
+                contentStream.close();
+            }
+
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static void writeTableHeader(PDPageContentStream contentStream, float yPosition) throws IOException {
+        contentStream.setFont(PDType1Font.HELVETICA, 10);
+        contentStream.beginText();
+        contentStream.newLineAtOffset(50, yPosition);
+        contentStream.showText("Subject Name");
+        contentStream.newLineAtOffset(200, 0);
+        contentStream.showText("Grades");
+        contentStream.newLineAtOffset(150, 0);
+        contentStream.showText("Subject Average");
+        contentStream.endText();
+    }
+}
@@ -1,134 +1,157 @@
 package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
 
+import com.groupe.gestion_.de_.notes.exceptions.BadRequestException;
 import com.groupe.gestion_.de_.notes.exceptions.ResourceNotFoundException;
 import com.groupe.gestion_.de_.notes.model.Student;
-import com.groupe.gestion_.de_.notes.dto.EnrollmentResponse;
-import com.groupe.gestion_.de_.notes.dto.GradeResponse;
-import com.groupe.gestion_.de_.notes.dto.SubjectResponse;
+import com.groupe.gestion_.de_.notes.model.Transcript;
+import com.groupe.gestion_.de_.notes.model.TranscriptStatus;
+import com.groupe.gestion_.de_.notes.dto.StudentResponse;
+import com.groupe.gestion_.de_.notes.dto.TranscriptData;
+import com.groupe.gestion_.de_.notes.dto.TranscriptResponse;
+import com.groupe.gestion_.de_.notes.repository.ClassRepository;
 import com.groupe.gestion_.de_.notes.repository.StudentRepository;
-import com.groupe.gestion_.de_.notes.services.ServiceInterface.EnrollmentService;
-import com.groupe.gestion_.de_.notes.services.ServiceInterface.GradesService;
+import com.groupe.gestion_.de_.notes.repository.TranscriptRepository;
 import com.groupe.gestion_.de_.notes.services.ServiceInterface.TranscriptService;
 import lombok.RequiredArgsConstructor;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.time.LocalDate;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
-import static org.apache.pdfbox.pdmodel.font.PDType1Font.*;
-
 @Service
 @RequiredArgsConstructor
 public class TranscriptServiceImpl implements TranscriptService {
 
     private final StudentRepository studentRepository;
-    private final EnrollmentService enrollmentService;
-    private final GradesService gradesService;
-
+    private final TranscriptRepository transcriptRepository;
+    private final ClassRepository classRepository;
+    private final TranscriptDataAssembler transcriptDataAssembler;
+    private final TranscriptFileStore transcriptFileStore;
+    private final TranscriptZipWriter transcriptZipWriter;
+    private final TranscriptLocks transcriptLocks;
+
+    /**
+     * Loads every transcript of the class up front, so that the ZIP can then be streamed without database access.
+     *
+     * @param classId The ID of the class.
+     * @return The transcript data of each enrolled student, by studentIdNum.
+     * @throws ResourceNotFoundException if class not found.
+     */
     @Override
-    public byte[] generateTranscriptForStudent(String studentIdNum) throws IOException {
-        // 1. Fetch all necessary data
-        Student student = studentRepository.findByStudentIdNum(studentIdNum)
-                .orElseThrow(() -> new ResourceNotFoundException("Student not found with ID: " + studentIdNum));
-        List<EnrollmentResponse> enrollments = enrollmentService.getEnrollmentsByStudentIdNum(studentIdNum);
-
-        // 2. Create the PDF document
-        try (PDDocument document = new PDDocument();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            PDPage page = new PDPage();
-            document.addPage(page);
-
-            try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
-                // Simplified PDF Generation Logic
-
-                // A. Header
-                contentStream.beginText();
-                contentStream.setFont(PDType1Font.HELVETICA_BOLD, 18);
-                contentStream.newLineAtOffset(50, 750);
-                contentStream.showText("Academic Transcript");
-                contentStream.endText();
-
-                // B. Student Information
-                contentStream.beginText();
-                contentStream.setFont(PDType1Font.HELVETICA, 12);
-                contentStream.newLineAtOffset(50, 720);
-                contentStream.showText("Student Name: " + student.getFirstname() + " " + student.getLastname());
-                contentStream.newLineAtOffset(0, -15);
-                contentStream.showText("Student studentIdNum: " + student.getStudentIdNum());
-                contentStream.newLineAtOffset(0, -15);
-                contentStream.showText("Date of Issue: " + LocalDate.now());
-                contentStream.endText();
+    @Transactional(readOnly = true)
+    public List<TranscriptData> getClassTranscriptData(Long classId) {
+        if (!classRepository.existsById(classId)) {
+            throw new ResourceNotFoundException("Class not found with ID: " + classId);
+        }
+        return transcriptDataAssembler.assembleForClass(classId);
+    }
 
-                // C. Grades Table
-                contentStream.beginText();
-                contentStream.setFont(PDType1Font.HELVETICA_BOLD, 14);
-                contentStream.newLineAtOffset(50, 650);
-                contentStream.showText("Enrollment and Grades");
-                contentStream.endText();
+    @Override
+    public void writeTranscriptsZip(List<TranscriptData> transcripts, OutputStream out) throws IOException {
+        transcriptZipWriter.write(transcripts, out);
+    }
 
-                float yPosition = 620;
-                contentStream.setFont(PDType1Font.HELVETICA, 10);
+    /**
+     * Never renders on the request thread. When the file store already holds the PDF of the student's
+     * current record (grades unchanged since the last generation), the GENERATED transcript is returned
+     * straight away; otherwise a job is queued for TranscriptJobWorker, or the one still waiting is returned.
+     *
+     * @param studentIdNum The ID of the student.
+     * @return The GENERATED transcript, or the queued transcript job.
+     * @throws ResourceNotFoundException if student not found.
+     */
+    @Override
+    @Transactional
+    public TranscriptResponse requestTranscript(String studentIdNum) {
+        Student student = findStudent(studentIdNum);
+        Optional<Transcript> waiting = transcriptRepository.findFirstByStudent_IdAndStatusInOrderByIdDesc(student.getId(),
+                EnumSet.of(TranscriptStatus.PENDING, TranscriptStatus.PROCESSING));
+        if (waiting.isPresent()) {
+            return mapTranscriptToResponse(waiting.get(), student);
+        }
 
-                // Table Header
-                contentStream.beginText();
-                contentStream.newLineAtOffset(50, yPosition);
-                contentStream.showText("Subject Name");
-                contentStream.newLineAtOffset(200, 0);
-                contentStream.showText("Grades");
-                contentStream.newLineAtOffset(150, 0);
-                contentStream.showText("Subject Average");
-                contentStream.endText();
-                yPosition -= 20;
+        String filepath = transcriptFileStore.filepathFor(transcriptDataAssembler.assembleForStudent(student));
+        // Until commit, TranscriptArchiver cannot delete the file this row is about to point to
+        transcriptLocks.lockFile(filepath);
+        Transcript transcript;
+        if (transcriptFileStore.exists(filepath)) {
+            transcript = transcriptRepository.findFirstByStudent_IdAndFilepathAndStatusOrderByIdDesc(student.getId(),
+                            filepath, TranscriptStatus.GENERATED)
+                    .orElseGet(() -> transcriptRepository.save(newTranscript(student, TranscriptStatus.GENERATED, filepath)));
+        } else {
+            transcript = transcriptRepository.save(newTranscript(student, TranscriptStatus.PENDING, filepath));
+        }
+        return mapTranscriptToResponse(transcript, student);
+    }
 
-                // Table Rows
-                for (EnrollmentResponse enrollment : enrollments) {
-                    SubjectResponse subject = enrollment.getSubject();
-                    List<GradeResponse> grades = gradesService.findGradesByStudentIdNumAndSubjectCode(student.getStudentIdNum(), subject.getSubjectCode());
-                    Double subjectAverage = gradesService.calculateStudentAverageGradeForSubject(student.getStudentIdNum(), subject.getSubjectCode());
+    @Override
+    @Transactional(readOnly = true)
+    public List<TranscriptResponse> getTranscriptsByStudentIdNum(String studentIdNum) {
+        Student student = findStudent(studentIdNum);
+        return transcriptRepository.findByStudent_IdOrderByIdDesc(student.getId()).stream()
+                .map(transcript -> mapTranscriptToResponse(transcript, student))
+                .collect(Collectors.toList());
+    }
 
-                    // Grades as a comma-separated string
-                    String gradesString = grades.stream()
-                            .map(g -> String.valueOf(g.getValue()))
-                            .collect(Collectors.joining(", "));
+    @Override
+    @Transactional(readOnly = true)
+    public TranscriptResponse getTranscript(String studentIdNum, Long transcriptId) {
+        Student student = findStudent(studentIdNum);
+        return mapTranscriptToResponse(findTranscript(student, transcriptId), student);
+    }
 
-                    contentStream.beginText();
-                    contentStream.newLineAtOffset(50, yPosition);
-                    contentStream.showText(subject.getName());
-                    contentStream.newLineAtOffset(200, 0);
-                    contentStream.showText(gradesString);
-                    contentStream.newLineAtOffset(150, 0);
-                    contentStream.showText(String.format("%.2f", subjectAverage));
-                    contentStream.endText();
+    @Override
+    @Transactional(readOnly = true)
+    public Resource getTranscriptPdf(String studentIdNum, Long transcriptId) {
+        Transcript transcript = findTranscript(findStudent(studentIdNum), transcriptId);
+        if (transcript.getStatus() != TranscriptStatus.GENERATED && transcript.getStatus() != TranscriptStatus.ARCHIVED) {
+            throw new BadRequestException("Transcript " + transcriptId + " is not available for download (status " + transcript.getStatus() + ").");
+        }
+        // Served from the file, or the archive bundle entry, by the resource converters, with Range support
+        Resource pdf = transcriptFileStore.open(transcript.getFilepath());
+        if (!pdf.exists()) {
+            throw new ResourceNotFoundException("Transcript file not found for transcript: " + transcriptId);
+        }
+        return pdf;
+    }
 
-                    yPosition -= 20;
-                }
+    private static Transcript newTranscript(Student student, TranscriptStatus status, String filepath) {
+        return Transcript.builder()
+                .student(student)
+                .status(status)
+                .generationDate(LocalDateTime.now())
+                .filepath(filepath)
+                .attempts(0)
+                .build();
+    }
 
-                // D. Overall Average
-                Double overallAverage = gradesService.calculateStudentOverallAverageGrade(studentIdNum);
-                contentStream.beginText();
-                contentStream.setFont(PDType1Font.HELVETICA_BOLD, 12);
-                contentStream.newLineAtOffset(50, yPosition - 30);
-                contentStream.showText("Overall Weighted Average: " + String.format("%.2f", overallAverage));
-                contentStream.endText();
+    private Student findStudent(String studentIdNum) {
+        return studentRepository.findByStudentIdNum(studentIdNum)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found with ID: " + studentIdNum));
+    }
 
-                // E. Footer/Signature
-                contentStream.beginText();
-                contentStream.setFont(PDType1Font.HELVETICA_OBLIQUE, 10);
-                contentStream.newLineAtOffset(50, 50);
-                contentStream.showText("This is an official document of the institution.");
-                contentStream.endText();
-            }
+    private Transcript findTranscript(Student student, Long transcriptId) {
+        return transcriptRepository.findByIdAndStudent_Id(transcriptId, student.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Transcript not found with ID: " + transcriptId));
+    }
 
-            document.save(out);
-            return out.toByteArray();
-        }
+    private TranscriptResponse mapTranscriptToResponse(Transcript transcript, Student student) {
+        return TranscriptResponse.builder()
+                .id(transcript.getId())
+                .generationDate(transcript.getGenerationDate())
+                .status(transcript.getStatus())
+                .filepath(transcript.getFilepath())
+                .attempts(transcript.getAttempts())
+                .errorMessage(transcript.getErrorMessage())
+                .student(new StudentResponse(student.getId(), student.getUsername(), student.getFirstname(),
+                        student.getLastname(), student.getEmail(), student.getRole(), student.getStudentIdNum()))
+                .build();
     }
 }
@@ -0,0 +1,110 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import com.groupe.gestion_.de_.notes.dto.TranscriptData;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Renders a batch of transcripts in parallel on a dedicated fork-join pool and streams them into a ZIP.
+ * PDFs go through TranscriptFileStore, so an unchanged record is read from disk instead of rendered; the others
+ * are rendered in memory and dropped once written, the store keeps only the files of transcript jobs. Only a window of twice the pool's parallelism is prepared ahead of the entry
+ * being written, which bounds the work done for a client that goes away. Entries keep the order of the input.
+ */
+@Component
+public class TranscriptZipWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TranscriptZipWriter.class);
+
+    private final TranscriptFileStore fileStore;
+    private final ForkJoinPool pool;
+    private final int window;
+
+    public TranscriptZipWriter(TranscriptFileStore fileStore,
+                               @Value("${app.transcripts.batch-parallelism:0}") int parallelism) {
+        this.fileStore = fileStore;
+        // 0 leaves one core to the request threads
+        int threads = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        this.pool = new ForkJoinPool(threads);
+        this.window = threads * 2;
+    }
+
+    /**
+     * Writes one transcript_{studentIdNum}.pdf entry per student. A transcript that cannot be rendered
+     * is listed in an ERRORS.txt entry instead of aborting the archive.
+     */
+    public void write(List<TranscriptData> transcripts, OutputStream out) throws IOException {
+        Deque<Rendering> pending = new ArrayDeque<>(window);
+        Iterator<TranscriptData> next = transcripts.iterator();
+        List<String> errors = new ArrayList<>();
+
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.setLevel(Deflater.BEST_SPEED); // PDF streams are already compressed
+            while (pending.size() < window && next.hasNext()) {
+                pending.add(submit(next.next()));
+            }
+            while (!pending.isEmpty()) {
+                Rendering rendering = pending.poll();
+                if (next.hasNext()) {
+                    pending.add(submit(next.next()));
+                }
+                byte[] pdf = await(rendering, errors);
+                if (pdf != null) {
+                    zip.putNextEntry(new ZipEntry("transcript_" + rendering.studentIdNum() + ".pdf"));
+                    zip.write(pdf);
+                    zip.closeEntry();
+                }
+            }
+            if (!errors.isEmpty()) {
+                zip.putNextEntry(new ZipEntry("ERRORS.txt"));
+                zip.write(String.join(System.lineSeparator(), errors).getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        } finally {
+            // Client gone or write failed: nothing left to render for
+            pending.forEach(rendering -> rendering.task().cancel(true));
+        }
+    }
+
+    private record Rendering(String studentIdNum, ForkJoinTask<byte[]> task) {
+    }
+
+    private Rendering submit(TranscriptData data) {
+        return new Rendering(data.studentIdNum(), pool.submit(() -> fileStore.readOrRender(data)));
+    }
+
+    private static byte[] await(Rendering rendering, List<String> errors) throws IOException {
+        try {
+            return rendering.task().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering transcripts", e);
+        } catch (ExecutionException e) {
+            logger.warn("Cannot render transcript of student {}", rendering.studentIdNum(), e.getCause());
+            errors.add(rendering.studentIdNum() + ": " + e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -4,7 +4,9 @@ import com.groupe.gestion_.de_.notes.dto.*;
 import com.groupe.gestion_.de_.notes.model.*;
 import com.groupe.gestion_.de_.notes.services.ServiceInterface.*;
 import com.groupe.gestion_.de_.notes.repository.*;
+import com.groupe.gestion_.de_.notes.events.AuthorizationDataChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -22,6 +24,7 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder; // Injected from security config
+    private final ApplicationEventPublisher eventPublisher;
 
 
 
@@ -184,6 +187,7 @@ public class UserServiceImpl implements UserService {
             throw new RuntimeException("User not found with id: " + id);
         }
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new AuthorizationDataChangedEvent("user " + id + " deleted"));
     }
 
     // --- Helper method for mapping ---
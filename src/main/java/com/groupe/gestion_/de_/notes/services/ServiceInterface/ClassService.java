@@ -2,6 +2,7 @@ package com.groupe.gestion_.de_.notes.services.ServiceInterface;
 
 import com.groupe.gestion_.de_.notes.dto.ClassRequest;
 import com.groupe.gestion_.de_.notes.dto.ClassResponse;
+import com.groupe.gestion_.de_.notes.dto.GradebookResponse;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,4 +15,5 @@ public interface ClassService {
     List<ClassResponse> getClassesByStudentIdNum(String studentIdNum);
     ClassResponse updateClass(Long id, ClassRequest request);
     void deleteClass(Long id);
+    GradebookResponse getGradebook(Long classId);
 }
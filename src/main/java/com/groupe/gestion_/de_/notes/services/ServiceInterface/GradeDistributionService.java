@@ -0,0 +1,8 @@
+package com.groupe.gestion_.de_.notes.services.ServiceInterface;
+
+import com.groupe.gestion_.de_.notes.dto.GradeDistributionResponse;
+
+public interface GradeDistributionService {
+    GradeDistributionResponse getSubjectDistribution(String subjectCode);
+    GradeDistributionResponse getClassDistribution(Long classId);
+}
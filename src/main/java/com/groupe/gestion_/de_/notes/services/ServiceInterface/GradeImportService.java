@@ -0,0 +1,20 @@
+package com.groupe.gestion_.de_.notes.services.ServiceInterface;
+
+import com.groupe.gestion_.de_.notes.dto.GradeImportResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.Optional;
+
+public interface GradeImportService {
+    /**
+     * Imports grades from an .xlsx or .csv file.
+     * Expected header columns: studentIdNum, subjectCode, value, date, and optionally comment and recordedBy.
+     */
+    GradeImportResponse importGrades(MultipartFile file) throws IOException;
+
+    /**
+     * @return The CSV error report of an import run by the current user, if it is still available.
+     */
+    Optional<byte[]> getErrorReport(String reportId);
+}
@@ -0,0 +1,13 @@
+package com.groupe.gestion_.de_.notes.services.ServiceInterface;
+
+import com.groupe.gestion_.de_.notes.dto.GradeEventPageResponse;
+import com.groupe.gestion_.de_.notes.model.Grade;
+
+import java.util.List;
+
+public interface GradeOutboxService {
+    void recordCreated(List<Grade> grades);
+    void recordUpdated(Grade grade, Long previousStudentId, Long previousSubjectId);
+    void recordDeleted(Grade grade);
+    GradeEventPageResponse getEventsSince(long since, Integer limit);
+}
@@ -0,0 +1,13 @@
+package com.groupe.gestion_.de_.notes.services.ServiceInterface;
+
+import com.groupe.gestion_.de_.notes.dto.GradeStatsReport;
+import com.groupe.gestion_.de_.notes.model.Grade;
+
+import java.util.List;
+
+public interface GradeStatsService {
+    void onGradesAdded(List<Grade> grades);
+    void refreshPair(Long studentId, Long subjectId);
+    GradeStatsReport rebuild();
+    GradeStatsReport checkConsistency(boolean repair);
+}
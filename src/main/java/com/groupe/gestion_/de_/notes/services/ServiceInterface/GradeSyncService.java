@@ -0,0 +1,9 @@
+package com.groupe.gestion_.de_.notes.services.ServiceInterface;
+
+import com.groupe.gestion_.de_.notes.dto.GradeChangesResponse;
+
+public interface GradeSyncService {
+    GradeChangesResponse getChanges(String since, Integer limit);
+    GradeChangesResponse getChangesByStudentIdNum(String studentIdNum, String since, Integer limit);
+    GradeChangesResponse getChangesBySubjectCode(String subjectCode, String since, Integer limit);
+}
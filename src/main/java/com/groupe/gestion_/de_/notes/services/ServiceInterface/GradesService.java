@@ -1,19 +1,28 @@
 package com.groupe.gestion_.de_.notes.services.ServiceInterface;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
+import com.groupe.gestion_.de_.notes.dto.GradeBatchResponse;
+import com.groupe.gestion_.de_.notes.dto.GradeFilter;
+import com.groupe.gestion_.de_.notes.dto.GradePageResponse;
 import com.groupe.gestion_.de_.notes.dto.GradeRequest;
 import com.groupe.gestion_.de_.notes.dto.GradeResponse;
+import com.groupe.gestion_.de_.notes.dto.StudentAverageResponse;
 
 public interface GradesService {
     GradeResponse addGrade(GradeRequest request);
+    GradeBatchResponse addGrades(List<GradeRequest> requests);
     Optional<GradeResponse> findGradeById(Long id);
     List<GradeResponse> getAllGrades();
+    long streamAllGrades(OutputStream out) throws IOException;
     List<GradeResponse> getGradesByTeacher(String teacherIdNum);
     List<GradeResponse> findGradesByStudentIdNum(String studentIdNum);
     List<GradeResponse> findGradesBySubjectCode(String subjectCode);
     List<GradeResponse> findGradesByStudentIdNumAndSubjectCode(String studentIdNum, String subjectCode);
+    GradePageResponse findGradesPage(GradeFilter filter, String cursor, Integer size);
     GradeResponse updateGrade(Long id, GradeRequest request);
     void deleteGrade(Long id);
 
@@ -21,4 +30,5 @@ public interface GradesService {
     Double calculateStudentAverageGradeForSubject(String studentIdNum, String subjectCode);
     Double calculateStudentOverallAverageGrade(String studentIdNum);
     Double calculateSubjectAverageGrade(String subjectCode);
+    List<StudentAverageResponse> calculateClassOverallAverageGrades(Long classId);
 }
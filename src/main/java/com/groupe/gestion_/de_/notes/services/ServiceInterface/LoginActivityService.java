@@ -0,0 +1,21 @@
+package com.groupe.gestion_.de_.notes.services.ServiceInterface;
+
+import com.groupe.gestion_.de_.notes.security.SecurityUserService.UserPrincipal;
+
+public interface LoginActivityService {
+    /**
+     * Records a fresh signin: closes the previous open session and opens a new one for this token.
+     */
+    void registerSignin(UserPrincipal principal, String ipAddress);
+
+    /**
+     * Called for every authenticated request. Records the login at most once per token
+     * and only remembers the activity in memory until the next flush.
+     */
+    void recordActivity(UserPrincipal principal, String ipAddress);
+
+    /**
+     * Writes the coalesced activity heartbeats to the database.
+     */
+    void flushHeartbeats();
+}
@@ -8,6 +8,9 @@ import java.util.Optional;
 public interface LoginRecordsService {
     void recordLogin(String username, String ipAddress);
     void recordLogout(String username);
+    void recordLogin(Long userId, String ipAddress);
+    void recordLogin(Long userId, String ipAddress, String tokenId);
+    void recordLogout(Long userId);
     List<LoginRecordResponse> getAllLoginRecords();
     List<LoginRecordResponse> getLoginRecordsByUser_Id(Long userId);
     Optional<LoginRecordResponse> getLoginRecordById(Long id);
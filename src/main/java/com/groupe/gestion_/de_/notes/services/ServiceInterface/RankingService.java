@@ -0,0 +1,11 @@
+package com.groupe.gestion_.de_.notes.services.ServiceInterface;
+
+import com.groupe.gestion_.de_.notes.dto.StudentRankResponse;
+
+import java.util.List;
+
+public interface RankingService {
+    List<StudentRankResponse> getClassRanking(Long classId, String subjectCode, Integer top);
+    StudentRankResponse getStudentRank(Long classId, String studentIdNum, String subjectCode);
+    List<StudentRankResponse> getStudentsBelow(Long classId, double threshold, String subjectCode);
+}
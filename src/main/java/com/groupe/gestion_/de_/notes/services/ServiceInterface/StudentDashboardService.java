@@ -0,0 +1,7 @@
+package com.groupe.gestion_.de_.notes.services.ServiceInterface;
+
+import com.groupe.gestion_.de_.notes.dto.StudentDashboardResponse;
+
+public interface StudentDashboardService {
+    StudentDashboardResponse getDashboard(String studentIdNum);
+}
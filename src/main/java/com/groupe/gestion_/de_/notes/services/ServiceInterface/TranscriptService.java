@@ -1,17 +1,41 @@
 package com.groupe.gestion_.de_.notes.services.ServiceInterface;
 
+import com.groupe.gestion_.de_.notes.dto.TranscriptData;
+import com.groupe.gestion_.de_.notes.dto.TranscriptResponse;
+import org.springframework.core.io.Resource;
+
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
 
 public interface TranscriptService {
     /**
-     * Generates an academic transcript in PDF format for a single student.
+     * Queues a transcript for background generation, or returns the job already waiting for this student.
+     * When the file store already holds the PDF of the student's current record, no job is queued.
      * @param studentIdNum The ID of the student.
-     * @return A byte array representing the PDF file.
-     * @throws IOException if there is an error during PDF generation.
+     * @return The PENDING (or PROCESSING) transcript job, or a GENERATED transcript ready for download.
+     */
+    TranscriptResponse requestTranscript(String studentIdNum);
+
+    List<TranscriptResponse> getTranscriptsByStudentIdNum(String studentIdNum);
+
+    TranscriptResponse getTranscript(String studentIdNum, Long transcriptId);
+
+    /**
+     * @return The generated PDF on disk, read from its archive bundle once ARCHIVED.
+     * @throws com.groupe.gestion_.de_.notes.exceptions.BadRequestException if the job is not GENERATED yet.
      */
+    Resource getTranscriptPdf(String studentIdNum, Long transcriptId);
 
-    byte[] generateTranscriptForStudent(String studentIdNum) throws IOException;
+    /**
+     * Loads, in a fixed number of queries, what is printed on the transcript of every student enrolled in a class.
+     * @param classId The ID of the class.
+     * @return One entry per enrolled student, by studentIdNum.
+     */
+    List<TranscriptData> getClassTranscriptData(Long classId);
 
-    // A method for bulk generation could be added here, e.g.:
-    // Map<Long, byte[]> generateBulkTranscripts() throws IOException;
-}
\ No newline at end of file
+    /**
+     * Renders the transcripts in parallel and streams them as ZIP entries into the given stream.
+     */
+    void writeTranscriptsZip(List<TranscriptData> transcripts, OutputStream out) throws IOException;
+}
@@ -0,0 +1,163 @@
+package com.groupe.gestion_.de_.notes.security.Utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.function.BooleanSupplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.groupe.gestion_.de_.notes.model.Class;
+import com.groupe.gestion_.de_.notes.model.ClassSubject;
+import com.groupe.gestion_.de_.notes.model.Enrollment;
+import com.groupe.gestion_.de_.notes.model.Grade;
+import com.groupe.gestion_.de_.notes.model.Role;
+import com.groupe.gestion_.de_.notes.model.Student;
+import com.groupe.gestion_.de_.notes.model.Subject;
+import com.groupe.gestion_.de_.notes.model.Teacher;
+import com.groupe.gestion_.de_.notes.model.TeacherClass;
+import com.groupe.gestion_.de_.notes.repository.EnrollmentRepository;
+import com.groupe.gestion_.de_.notes.repository.GradeRepository;
+import com.groupe.gestion_.de_.notes.repository.TeacherClassRepository;
+import com.groupe.gestion_.de_.notes.repository.UserRepository;
+import com.groupe.gestion_.de_.notes.security.SecurityUserService.UserPrincipal;
+
+/**
+ * Runs the authorization checks against a database and counts the statements Hibernate prepares:
+ * every check, granted or denied, must be answered by exactly one query.
+ *
+ * Teacher T teaches class A (MATH). Class B teaches MATH and PHYS, without T.
+ * Student S is enrolled in A for MATH, student S2 in B for PHYS and MATH.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true", // grades.value is reserved in H2
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class ObjectLevelSecurityQueriesTest {
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private GradeRepository gradeRepository;
+    @Autowired private TeacherClassRepository teacherClassRepository;
+    @Autowired private EnrollmentRepository enrollmentRepository;
+    @Autowired private UserRepository userRepository;
+
+    private Statistics statistics;
+
+    private Teacher teacher;
+    private Student student;
+    private Class classA;
+    private Class classB;
+    private Grade mathGrade;
+    private Grade physGrade;
+    private Enrollment mathInA;
+    private Enrollment physInB;
+    private Enrollment mathInB;
+
+    @BeforeEach
+    void setUp() {
+        teacher = entityManager.persist(Teacher.builder().username("tdoe").password("x").firstname("T").lastname("Doe")
+                .email("tdoe@example.com").role(Role.TEACHER).teacherIdNum("TCH001").build());
+        student = entityManager.persist(Student.builder().username("sdoe").password("x").firstname("S").lastname("Doe")
+                .email("sdoe@example.com").role(Role.STUDENT).studentIdNum("STU001").build());
+        Student otherStudent = entityManager.persist(Student.builder().username("sroe").password("x").firstname("S")
+                .lastname("Roe").email("sroe@example.com").role(Role.STUDENT).studentIdNum("STU002").build());
+
+        Subject math = entityManager.persist(Subject.builder().subjectCode("MATH").name("Mathematics").coefficient(2.0).build());
+        Subject phys = entityManager.persist(Subject.builder().subjectCode("PHYS").name("Physics").coefficient(1.0).build());
+
+        classA = entityManager.persist(Class.builder().academicYear("2024-2025").name("A").build());
+        classB = entityManager.persist(Class.builder().academicYear("2024-2025").name("B").build());
+        entityManager.persist(ClassSubject.builder().classEntity(classA).subject(math).build());
+        entityManager.persist(ClassSubject.builder().classEntity(classB).subject(math).build());
+        entityManager.persist(ClassSubject.builder().classEntity(classB).subject(phys).build());
+        entityManager.persist(TeacherClass.builder().teacher(teacher).classEntity(classA).build());
+
+        mathInA = entityManager.persist(enrollment(student, classA, math));
+        physInB = entityManager.persist(enrollment(otherStudent, classB, phys));
+        mathInB = entityManager.persist(enrollment(otherStudent, classB, math));
+
+        mathGrade = entityManager.persist(Grade.builder().value(14.0).date(LocalDate.of(2025, 1, 10))
+                .student(student).subject(math).build());
+        physGrade = entityManager.persist(Grade.builder().value(9.0).date(LocalDate.of(2025, 1, 10))
+                .student(otherStudent).subject(phys).build());
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void teacherChecksRunOneQueryEach() {
+        ObjectLevelSecurity security = authenticatedAs(teacher.getId(), Role.TEACHER);
+
+        assertTrue(oneQuery(() -> security.isTeacherAssignedToClass(classA.getId())));
+        assertFalse(oneQuery(() -> security.isTeacherAssignedToClass(classB.getId())));
+        assertTrue(oneQuery(() -> security.isTeacherAssignedToSubject("MATH")));
+        assertFalse(oneQuery(() -> security.isTeacherAssignedToSubject("PHYS")));
+        assertTrue(oneQuery(() -> security.isTeacherAssignedToStudent("STU001")));
+        assertFalse(oneQuery(() -> security.isTeacherAssignedToStudent("STU002")));
+        assertTrue(oneQuery(() -> security.isTeacherAssignedToGrade(mathGrade.getId())));
+        assertFalse(oneQuery(() -> security.isTeacherAssignedToGrade(physGrade.getId())));
+    }
+
+    @Test
+    void teacherEnrollmentCheckRunsOneQuery() {
+        ObjectLevelSecurity security = authenticatedAs(teacher.getId(), Role.TEACHER);
+
+        assertTrue(oneQuery(() -> security.isTeacherAssignedToEnrollment(mathInA.getId()))); // by class
+        assertTrue(oneQuery(() -> security.isTeacherAssignedToEnrollment(mathInB.getId()))); // by subject
+        assertFalse(oneQuery(() -> security.isTeacherAssignedToEnrollment(physInB.getId())));
+        assertFalse(oneQuery(() -> security.isTeacherAssignedToEnrollment(-1L)));
+    }
+
+    @Test
+    void studentChecksRunOneQueryEach() {
+        ObjectLevelSecurity security = authenticatedAs(student.getId(), Role.STUDENT);
+
+        assertTrue(oneQuery(() -> security.isStudentEnrolledInClass(classA.getId())));
+        assertFalse(oneQuery(() -> security.isStudentEnrolledInClass(classB.getId())));
+        assertTrue(oneQuery(() -> security.isStudentOwnerOfGrade(mathGrade.getId())));
+        assertFalse(oneQuery(() -> security.isStudentOwnerOfGrade(physGrade.getId())));
+        assertTrue(oneQuery(() -> security.isStudentOwnerOfEnrollment(mathInA.getId())));
+        assertFalse(oneQuery(() -> security.isStudentOwnerOfEnrollment(physInB.getId())));
+    }
+
+    private boolean oneQuery(BooleanSupplier check) {
+        statistics.clear();
+        boolean result = check.getAsBoolean();
+        assertEquals(1, statistics.getPrepareStatementCount(), "statements prepared by the check");
+        return result;
+    }
+
+    private ObjectLevelSecurity authenticatedAs(Long userId, Role role) {
+        UserPrincipal principal = UserPrincipal.builder().id(userId).username("user" + userId).role(role).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        return new ObjectLevelSecurity(gradeRepository, teacherClassRepository, enrollmentRepository,
+                new CurrentUserContext(userRepository));
+    }
+
+    private static Enrollment enrollment(Student student, Class classEntity, Subject subject) {
+        return Enrollment.builder().enrollmentDate(LocalDate.of(2024, 9, 2)).semester("S1").academicYear("2024-2025")
+                .student(student).classEntity(classEntity).subject(subject).build();
+    }
+}
@@ -0,0 +1,106 @@
+package com.groupe.gestion_.de_.notes.security.Utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.groupe.gestion_.de_.notes.model.Role;
+import com.groupe.gestion_.de_.notes.model.Student;
+import com.groupe.gestion_.de_.notes.repository.EnrollmentRepository;
+import com.groupe.gestion_.de_.notes.repository.GradeRepository;
+import com.groupe.gestion_.de_.notes.repository.TeacherClassRepository;
+import com.groupe.gestion_.de_.notes.repository.UserRepository;
+import com.groupe.gestion_.de_.notes.security.SecurityUserService.UserPrincipal;
+
+/**
+ * The current user must be resolved at most once per request, and not at all when the token
+ * already carries the identity claims. The authorization queries themselves are counted against
+ * a real database by ObjectLevelSecurityQueriesTest.
+ */
+@ExtendWith(MockitoExtension.class)
+class ObjectLevelSecurityTest {
+
+    private static final Long USER_ID = 42L;
+    private static final String USERNAME = "jdoe";
+
+    @Mock private UserRepository userRepository;
+    @Mock private GradeRepository gradeRepository;
+    @Mock private TeacherClassRepository teacherClassRepository;
+    @Mock private EnrollmentRepository enrollmentRepository;
+
+    private ObjectLevelSecurity objectLevelSecurity;
+
+    @BeforeEach
+    void setUp() {
+        UserPrincipal principal = UserPrincipal.builder()
+                .id(USER_ID)
+                .username(USERNAME)
+                .role(Role.STUDENT)
+                .studentIdNum("STU001")
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        objectLevelSecurity = new ObjectLevelSecurity(gradeRepository, teacherClassRepository,
+                enrollmentRepository, new CurrentUserContext(userRepository));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void isStudentOwnerIsAnsweredFromThePrincipal() {
+        assertTrue(objectLevelSecurity.isStudentOwner("STU001"));
+        assertFalse(objectLevelSecurity.isStudentOwner("STU002"));
+        assertEquals(0, authorizationQueries());
+        assertEquals(0, identityLookups());
+    }
+
+    @Test
+    void legacyPrincipalIsLookedUpOncePerRequest() {
+        Student student = new Student();
+        student.setId(USER_ID);
+        student.setUsername(USERNAME);
+        student.setRole(Role.STUDENT);
+        student.setStudentIdNum("STU001");
+        when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(student));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                USERNAME, null, List.of(new SimpleGrantedAuthority("ROLE_STUDENT"))));
+
+        assertTrue(objectLevelSecurity.isStudentOwner("STU001"));
+        assertEquals(USER_ID, objectLevelSecurity.getCurrentAuthenticatedUserId());
+        assertFalse(objectLevelSecurity.isTeacherOwner("TCH001"));
+        assertEquals(1, identityLookups());
+    }
+
+    /**
+     * Number of repository calls made by the check itself, i.e. excluding the current-user lookup.
+     */
+    private long authorizationQueries() {
+        return Stream.of(gradeRepository, teacherClassRepository, enrollmentRepository)
+                .mapToLong(repository -> mockingDetails(repository).getInvocations().size())
+                .sum();
+    }
+
+    private long identityLookups() {
+        return mockingDetails(userRepository).getInvocations().size();
+    }
+}
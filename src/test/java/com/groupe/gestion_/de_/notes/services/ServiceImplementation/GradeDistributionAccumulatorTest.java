@@ -0,0 +1,88 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import com.groupe.gestion_.de_.notes.dto.GradeDistributionResponse;
+
+class GradeDistributionAccumulatorTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void computesDescriptiveStatistics() {
+        GradeDistributionAccumulator accumulator = new GradeDistributionAccumulator();
+        for (double value : new double[] {8, 12.5, 10, 20, 14, 0}) {
+            accumulator.add(value);
+        }
+
+        GradeDistributionResponse response = accumulator.toResponse("SUBJECT", "MATH101");
+
+        assertEquals(6, response.getCount());
+        assertEquals(64.5 / 6, response.getMean(), EPSILON);
+        assertEquals(Math.sqrt(populationVariance(new double[] {8, 12.5, 10, 20, 14, 0})), response.getStddev(), EPSILON);
+        assertEquals(0.0, response.getMin(), EPSILON);
+        assertEquals(20.0, response.getMax(), EPSILON);
+        assertEquals(8.5, response.getQ1(), EPSILON); // ranks 1 and 2 of 0, 8, 10, 12.5, 14, 20
+        assertEquals(11.25, response.getMedian(), EPSILON);
+        assertEquals(13.625, response.getQ3(), EPSILON);
+
+        long[] expected = new long[21];
+        expected[0] = 1;
+        expected[8] = 1;
+        expected[10] = 1;
+        expected[12] = 1;
+        expected[14] = 1;
+        expected[20] = 1;
+        assertArrayEquals(expected, response.getHistogram());
+    }
+
+    @Test
+    void mergeMatchesASinglePass() {
+        GradeDistributionAccumulator all = new GradeDistributionAccumulator();
+        GradeDistributionAccumulator left = new GradeDistributionAccumulator();
+        GradeDistributionAccumulator right = new GradeDistributionAccumulator();
+        for (int i = 0; i < 1000; i++) {
+            double value = (i * 37 % 2001) / 100.0;
+            all.add(value);
+            (i % 3 == 0 ? left : right).add(value);
+        }
+
+        GradeDistributionResponse expected = all.toResponse("CLASS", "1");
+        GradeDistributionResponse merged = left.merge(right).toResponse("CLASS", "1");
+
+        assertEquals(expected.getCount(), merged.getCount());
+        assertEquals(expected.getMean(), merged.getMean(), EPSILON);
+        assertEquals(expected.getStddev(), merged.getStddev(), EPSILON);
+        assertEquals(expected.getMedian(), merged.getMedian(), EPSILON);
+        assertEquals(expected.getQ1(), merged.getQ1(), EPSILON);
+        assertEquals(expected.getQ3(), merged.getQ3(), EPSILON);
+        assertArrayEquals(expected.getHistogram(), merged.getHistogram());
+    }
+
+    @Test
+    void emptyScopeHasNoMoments() {
+        GradeDistributionResponse response = new GradeDistributionAccumulator().toResponse("SUBJECT", "EMPTY");
+
+        assertEquals(0, response.getCount());
+        assertNull(response.getMean());
+        assertNull(response.getStddev());
+        assertNull(response.getMedian());
+        assertArrayEquals(new long[21], response.getHistogram());
+    }
+
+    private static double populationVariance(double[] values) {
+        double mean = 0;
+        for (double value : values) {
+            mean += value / values.length;
+        }
+        double sum = 0;
+        for (double value : values) {
+            sum += (value - mean) * (value - mean);
+        }
+        return sum / values.length;
+    }
+}
@@ -0,0 +1,97 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.groupe.gestion_.de_.notes.dto.GradeImportResponse;
+import com.groupe.gestion_.de_.notes.model.Grade;
+import com.groupe.gestion_.de_.notes.model.GradeImportReport;
+import com.groupe.gestion_.de_.notes.repository.GradeImportReportRepository;
+import com.groupe.gestion_.de_.notes.repository.StudentRepository;
+import com.groupe.gestion_.de_.notes.repository.SubjectRepository;
+import com.groupe.gestion_.de_.notes.repository.TeacherClassRepository;
+import com.groupe.gestion_.de_.notes.repository.TeacherRepository;
+import com.groupe.gestion_.de_.notes.security.Utils.CurrentUserContext;
+
+/**
+ * Values that parse as doubles but are not grades ("NaN", "Infinity") must be rejected like any
+ * other out-of-range value, never written.
+ */
+@ExtendWith(MockitoExtension.class)
+class GradeImportServiceImplTest {
+
+    @Mock private StudentRepository studentRepository;
+    @Mock private SubjectRepository subjectRepository;
+    @Mock private TeacherRepository teacherRepository;
+    @Mock private TeacherClassRepository teacherClassRepository;
+    @Mock private GradeImportReportRepository reportRepository;
+    @Mock private GradeWriter gradeWriter;
+    @Mock private CurrentUserContext currentUserContext;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private GradeImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        when(studentRepository.findAllStudentIdNumsAndIds()).thenReturn(List.<Object[]>of(new Object[] {"STU001", 1L}));
+        when(subjectRepository.findAllSubjectCodesAndIds()).thenReturn(List.<Object[]>of(new Object[] {"MATH", 10L}));
+        when(teacherRepository.findAllTeacherIdNumsAndIds()).thenReturn(List.of());
+        importService = new GradeImportServiceImpl(studentRepository, subjectRepository, teacherRepository,
+                teacherClassRepository, reportRepository, gradeWriter, currentUserContext, transactionManager,
+                500, 10_000, 24);
+    }
+
+    @Test
+    void nonFiniteValuesAreRejected() throws Exception {
+        String csv = "studentIdNum,subjectCode,value,date\n"
+                + "STU001,MATH,15.5,2025-01-10\n"
+                + "STU001,MATH,NaN,2025-01-11\n"
+                + "STU001,MATH,-Infinity,2025-01-12\n";
+
+        GradeImportResponse response = importService.importGrades(
+                new MockMultipartFile("file", "grades.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3, response.getTotalRows());
+        assertEquals(1, response.getImportedCount());
+        assertEquals(2, response.getRejectedCount());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Grade>> written = ArgumentCaptor.forClass(List.class);
+        verify(gradeWriter).persistGrades(written.capture());
+        assertEquals(List.of(15.5), written.getValue().stream().map(Grade::getValue).toList());
+
+        ArgumentCaptor<GradeImportReport> report = ArgumentCaptor.forClass(GradeImportReport.class);
+        verify(reportRepository).save(report.capture());
+        String reportCsv = new String(report.getValue().getCsv(), StandardCharsets.UTF_8);
+        assertTrue(reportCsv.contains("3,STU001,MATH,NaN,2025-01-11,Grade value must be a finite number: NaN"), reportCsv);
+        assertTrue(reportCsv.contains("4,STU001,MATH,-Infinity,2025-01-12,Grade value must be a finite number: -Infinity"), reportCsv);
+    }
+
+    @Test
+    void persistGradesIsNotCalledForAChunkWithoutValidRows() throws Exception {
+        String csv = "studentIdNum,subjectCode,value,date\nSTU001,MATH,NaN,2025-01-11\n";
+
+        GradeImportResponse response = importService.importGrades(
+                new MockMultipartFile("file", "grades.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(0, response.getImportedCount());
+        assertEquals(1, response.getRejectedCount());
+        verify(gradeWriter, never()).persistGrades(anyList());
+    }
+}
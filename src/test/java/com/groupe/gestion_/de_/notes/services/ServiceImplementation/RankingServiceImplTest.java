@@ -0,0 +1,126 @@
+package com.groupe.gestion_.de_.notes.services.ServiceImplementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.groupe.gestion_.de_.notes.dto.StudentRankResponse;
+import com.groupe.gestion_.de_.notes.events.GradeChangedEvent;
+import com.groupe.gestion_.de_.notes.repository.ClassRepository;
+import com.groupe.gestion_.de_.notes.repository.EnrollmentRepository;
+import com.groupe.gestion_.de_.notes.repository.StudentSubjectGradeStatsRepository;
+import com.groupe.gestion_.de_.notes.repository.SubjectRepository;
+
+/**
+ * A ranking re-ranked incrementally, dirty students out and binary-inserted back, must answer exactly
+ * like a ranking loaded and sorted from scratch on the same aggregates.
+ */
+@ExtendWith(MockitoExtension.class)
+class RankingServiceImplTest {
+
+    private static final Long CLASS_ID = 1L;
+    private static final double EPSILON = 1e-9;
+
+    // [studentId, subjectCode, gradeSum, gradeCount, coefficient], as returned by the stats repository
+    private static final List<Object[]> BEFORE = List.of(
+            row(1, "MATH", 30, 2, 2), row(1, "PHYS", 24, 2, 1),
+            row(2, "MATH", 30, 2, 2), row(2, "PHYS", 10, 1, 1),
+            row(3, "MATH", 20, 2, 2),
+            row(4, "PHYS", 12, 1, 1));
+
+    // 1 drops to a tie with 3 in MATH, 3 gains PHYS, 4 loses its only subject, 5 gets a first grade
+    private static final List<Object[]> AFTER = List.of(
+            row(1, "MATH", 20, 2, 2), row(1, "PHYS", 24, 2, 1),
+            row(2, "MATH", 30, 2, 2), row(2, "PHYS", 10, 1, 1),
+            row(3, "MATH", 20, 2, 2), row(3, "PHYS", 36, 2, 1),
+            row(5, "MATH", 15, 1, 2));
+
+    @Mock private ClassRepository classRepository;
+    @Mock private SubjectRepository subjectRepository;
+    @Mock private EnrollmentRepository enrollmentRepository;
+    @Mock private StudentSubjectGradeStatsRepository gradeStatsRepository;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(classRepository.existsById(CLASS_ID)).thenReturn(true);
+        lenient().when(subjectRepository.existsBySubjectCode("MATH")).thenReturn(true);
+        lenient().when(subjectRepository.existsBySubjectCode("PHYS")).thenReturn(true);
+        List<Object[]> students = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            students.add(new Object[] {id, "STU00" + id, "First" + id, "Last" + id});
+        }
+        when(enrollmentRepository.findEnrolledStudentsByClassId(CLASS_ID)).thenReturn(students);
+    }
+
+    @Test
+    void incrementalRefreshMatchesAFullResort() {
+        when(gradeStatsRepository.findRankingRowsByClassId(CLASS_ID)).thenReturn(BEFORE);
+        RankingServiceImpl incremental = newService();
+        for (String subjectCode : Arrays.asList(null, "MATH", "PHYS")) {
+            incremental.getClassRanking(CLASS_ID, subjectCode, null); // loaded before the change
+        }
+
+        when(gradeStatsRepository.findRankingRowsByClassId(CLASS_ID)).thenReturn(AFTER);
+        when(gradeStatsRepository.findRankingRowsByStudentIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> studentIds = invocation.getArgument(0);
+            return AFTER.stream().filter(row -> studentIds.contains((Long) row[0])).collect(Collectors.toList());
+        });
+        incremental.onGradeChanged(new GradeChangedEvent(Set.of(1L, 3L, 4L, 5L), Set.of()));
+        RankingServiceImpl resorted = newService();
+
+        for (String subjectCode : Arrays.asList(null, "MATH", "PHYS")) {
+            assertEquals(describe(resorted.getClassRanking(CLASS_ID, subjectCode, null)),
+                    describe(incremental.getClassRanking(CLASS_ID, subjectCode, null)), "ranking of " + subjectCode);
+            assertEquals(describe(resorted.getStudentsBelow(CLASS_ID, 12.5, subjectCode)),
+                    describe(incremental.getStudentsBelow(CLASS_ID, 12.5, subjectCode)), "below 12.5 in " + subjectCode);
+            for (long id = 1; id <= 5; id++) {
+                assertEquals(describe(List.of(resorted.getStudentRank(CLASS_ID, "STU00" + id, subjectCode))),
+                        describe(List.of(incremental.getStudentRank(CLASS_ID, "STU00" + id, subjectCode))),
+                        "rank of STU00" + id + " in " + subjectCode);
+            }
+        }
+    }
+
+    @Test
+    void tiesShareARankAndCountHalfInThePercentile() {
+        when(gradeStatsRepository.findRankingRowsByClassId(CLASS_ID)).thenReturn(AFTER);
+
+        List<StudentRankResponse> math = newService().getClassRanking(CLASS_ID, "MATH", null);
+
+        assertEquals(List.of("STU002", "STU005", "STU001", "STU003"),
+                math.stream().map(StudentRankResponse::getStudentIdNum).collect(Collectors.toList()));
+        assertEquals(List.of(1, 1, 3, 3), math.stream().map(StudentRankResponse::getRank).collect(Collectors.toList()));
+        assertEquals(75.0, math.get(0).getPercentile(), EPSILON); // 2 below, 2 tied
+        assertEquals(25.0, math.get(3).getPercentile(), EPSILON); // 0 below, 2 tied
+        assertEquals(4, math.get(0).getRankedCount());
+    }
+
+    private RankingServiceImpl newService() {
+        return new RankingServiceImpl(classRepository, subjectRepository, enrollmentRepository, gradeStatsRepository);
+    }
+
+    private static Object[] row(long studentId, String subjectCode, double gradeSum, long gradeCount, double coefficient) {
+        return new Object[] {studentId, subjectCode, gradeSum, gradeCount, coefficient};
+    }
+
+    private static List<String> describe(List<StudentRankResponse> responses) {
+        return responses.stream()
+                .map(response -> response.getStudentIdNum() + " avg=" + response.getAverage() + " rank=" + response.getRank()
+                        + " pct=" + response.getPercentile() + " of " + response.getRankedCount())
+                .collect(Collectors.toList());
+    }
+}